@@ -0,0 +1,76 @@
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+
+import java.io.ByteArrayInputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Compares JSON and CBOR responses from a running service: bytes on the wire with and without gzip, and the
+ * client-side decode time of each body. Run through scripts/payload-benchmark.sh, which supplies the classpath.
+ */
+public class PayloadBenchmark {
+  private static final int WARMUP = 200;
+  private static final int ITERATIONS = 1000;
+
+  public static void main(String[] args) throws Exception {
+    String base = args.length > 0 ? args[0] : "http://localhost:8080/api";
+    String token = System.getenv("CMS_TOKEN");
+    List<String> paths = args.length > 1 ? Arrays.asList(args).subList(1, args.length)
+        : List.of("/contraband-items", "/messages?userId=6a0f3c1e-6d1b-4c39-9a55-0c8f1b1e1001");
+
+    HttpClient client = HttpClient.newHttpClient();
+    ObjectMapper json = new ObjectMapper();
+    CBORMapper cbor = new CBORMapper();
+
+    System.out.printf("%-60s %-6s %12s %12s %14s%n", "path", "format", "bytes", "gzip bytes", "decode µs p50");
+    for (String path : paths) {
+      for (String format : List.of("json", "cbor")) {
+        String accept = format.equals("json") ? "application/json" : "application/cbor";
+        byte[] plain = fetch(client, base + path, accept, token, false);
+        byte[] gzipped = fetch(client, base + path, accept, token, true);
+        ObjectMapper mapper = format.equals("json") ? json : cbor;
+        System.out.printf("%-60s %-6s %12d %12d %14.1f%n", path, format, plain.length, gzipped.length,
+            medianDecodeMicros(mapper, gzipped));
+      }
+    }
+  }
+
+  private static byte[] fetch(HttpClient client, String url, String accept, String token, boolean gzip) throws Exception {
+    HttpRequest.Builder req = HttpRequest.newBuilder(URI.create(url)).header("Accept", accept);
+    if (token != null) req.header("Authorization", "Bearer " + token);
+    if (gzip) req.header("Accept-Encoding", "gzip");
+    HttpResponse<byte[]> res = client.send(req.build(), HttpResponse.BodyHandlers.ofByteArray());
+    if (res.statusCode() != 200) throw new IllegalStateException(url + " answered " + res.statusCode());
+    return res.body();
+  }
+
+  /** Decode time of a (possibly gzipped) body as a client sees it: inflate, then parse. */
+  private static double medianDecodeMicros(ObjectMapper mapper, byte[] body) throws Exception {
+    boolean gzipped = body.length > 2 && (body[0] & 0xff) == 0x1f && (body[1] & 0xff) == 0x8b;
+    for (int i = 0; i < WARMUP; i++) decode(mapper, body, gzipped);
+    long[] samples = new long[ITERATIONS];
+    for (int i = 0; i < ITERATIONS; i++) {
+      long start = System.nanoTime();
+      decode(mapper, body, gzipped);
+      samples[i] = System.nanoTime() - start;
+    }
+    Arrays.sort(samples);
+    return samples[ITERATIONS / 2] / 1000.0;
+  }
+
+  private static void decode(ObjectMapper mapper, byte[] body, boolean gzipped) throws Exception {
+    if (gzipped) {
+      try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+        mapper.readTree(in);
+      }
+    } else {
+      mapper.readTree(body);
+    }
+  }
+}
@@ -0,0 +1,11 @@
+#!/usr/bin/env bash
+# Compares JSON and CBOR payloads from a running service: wire bytes with and without gzip, and decode time.
+#
+#   CMS_TOKEN=<jwt> scripts/payload-benchmark.sh [base-url] [path...]
+#
+# base-url defaults to http://localhost:8080/api. Paths default to the item list and the admin's message list.
+set -euo pipefail
+cd "$(dirname "$0")/.."
+
+mvn -q dependency:build-classpath -Dmdep.includeScope=runtime -Dmdep.outputFile=target/benchmark.classpath
+exec java -cp "$(cat target/benchmark.classpath)" scripts/PayloadBenchmark.java "$@"
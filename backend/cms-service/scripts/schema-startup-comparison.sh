@@ -0,0 +1,18 @@
+#!/usr/bin/env bash
+# Compares startup with the old Hibernate-managed schema (ddl-auto=update, no Flyway) against the current
+# Flyway migrate plus Hibernate validate, using the plain jar from mvn package.
+#
+#   scripts/schema-startup-comparison.sh [runs] [spring args...]
+#
+# Extra arguments select the database, e.g. --spring.profiles.active=postgres. For a fair comparison on a
+# persistent database, point the ddl-auto run at an empty schema.
+set -euo pipefail
+cd "$(dirname "$0")"
+
+RUNS="${1:-5}"
+shift $(( $# < 1 ? 0 : 1 ))
+
+echo "== ddl-auto=update, Flyway disabled"
+./startup-benchmark.sh "$RUNS" plain --spring.flyway.enabled=false --spring.jpa.hibernate.ddl-auto=update "$@" | tail -n 1
+echo "== Flyway migrate + ddl-auto=validate"
+./startup-benchmark.sh "$RUNS" plain "$@" | tail -n 1
@@ -0,0 +1,59 @@
+#!/usr/bin/env bash
+# Measures time-to-first-request: from JVM launch until GET /api/actuator/health answers 200.
+#
+#   scripts/startup-benchmark.sh [runs] [mode] [spring args...]
+#
+# mode is "plain" (target/cms-service-*.jar, built with mvn package) or "fast-start" (target/fast-start, built with
+# mvn -Pfast-start package). Remaining arguments are passed to the application. Prints each run and the median in
+# milliseconds.
+set -euo pipefail
+
+RUNS="${1:-5}"
+MODE="${2:-fast-start}"
+shift $(( $# < 2 ? $# : 2 ))
+APP_ARGS=("$@")
+PORT="${PORT:-18080}"
+URL="http://localhost:${PORT}/api/actuator/health"
+cd "$(dirname "$0")/.."
+
+case "$MODE" in
+  plain)
+    JAR="$(ls target/cms-service-*.jar | grep -v original | head -n 1)"
+    WORKDIR="."
+    JAVA_ARGS=(-jar "$JAR")
+    ;;
+  fast-start)
+    WORKDIR="target/fast-start"
+    JAR="$(cd "$WORKDIR" && ls cms-service-*.jar | head -n 1)"
+    JAVA_ARGS=(-XX:SharedArchiveFile=application.jsa -Dspring.aot.enabled=true
+               -Dspring.profiles.active=faststart -jar "$JAR")
+    ;;
+  *)
+    echo "unknown mode: $MODE (expected plain or fast-start)" >&2
+    exit 2
+    ;;
+esac
+
+now_ms() { date +%s%3N; }
+
+results=()
+for i in $(seq 1 "$RUNS"); do
+  start=$(now_ms)
+  (cd "$WORKDIR" && exec java "${JAVA_ARGS[@]}" --server.port="$PORT" --app.evidence.scrub.enabled=false ${APP_ARGS[@]+"${APP_ARGS[@]}"}) \
+    > "target/startup-benchmark-$i.log" 2>&1 &
+  pid=$!
+  until curl -fsS -o /dev/null "$URL" 2>/dev/null; do
+    if ! kill -0 "$pid" 2>/dev/null; then
+      echo "run $i: service exited, see target/startup-benchmark-$i.log" >&2
+      exit 1
+    fi
+    sleep 0.02
+  done
+  elapsed=$(( $(now_ms) - start ))
+  kill "$pid" && wait "$pid" 2>/dev/null || true
+  echo "run $i: ${elapsed} ms"
+  results+=("$elapsed")
+done
+
+median=$(printf '%s\n' "${results[@]}" | sort -n | awk '{a[NR]=$1} END {print (NR % 2) ? a[(NR+1)/2] : int((a[NR/2] + a[NR/2+1]) / 2)}')
+echo "$MODE: median time-to-first-request ${median} ms over $RUNS runs"
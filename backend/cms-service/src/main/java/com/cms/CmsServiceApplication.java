@@ -2,8 +2,10 @@ package com.cms;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class CmsServiceApplication {
   public static void main(String[] args) {
     SpringApplication.run(CmsServiceApplication.class, args);
@@ -0,0 +1,19 @@
+package com.cms;
+
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationInitializer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class StartupConfig {
+
+  /**
+   * Migrations must finish before the service reports healthy, even when the faststart profile makes every other
+   * bean lazy. Scheduled beans are already kept eager by Spring Boot.
+   */
+  @Bean
+  static LazyInitializationExcludeFilter eagerStartupBeans() {
+    return LazyInitializationExcludeFilter.forBeanTypes(FlywayMigrationInitializer.class);
+  }
+}
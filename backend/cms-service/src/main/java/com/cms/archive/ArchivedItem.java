@@ -0,0 +1,10 @@
+package com.cms.archive;
+
+import com.cms.contraband.ContrabandItem;
+import com.cms.custody.CustodyRecord;
+import com.cms.file.EvidenceFile;
+
+import java.util.List;
+
+/** A closed seizure as stored in the archive tier, with the custody chain and evidence metadata it took along. */
+public record ArchivedItem(ContrabandItem item, List<CustodyRecord> custody, List<EvidenceFile> evidence) {}
@@ -0,0 +1,132 @@
+package com.cms.archive;
+
+import com.cms.cache.CollectionVersions;
+import com.cms.contraband.ContrabandItem;
+import com.cms.contraband.ContrabandRepository;
+import com.cms.contraband.ContrabandStatus;
+import com.cms.custody.CustodyRecord;
+import com.cms.custody.CustodyRepository;
+import com.cms.file.EvidenceFile;
+import com.cms.file.EvidenceFileRepository;
+import com.cms.scheduling.JobLocks;
+import com.cms.sync.ChangeLog;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Moves destroyed and released items that have not changed for {@code app.archive.min-age}, with their custody
+ * records and evidence metadata, out of the working tables into the {@link ItemArchiveStore}. Each batch runs in one
+ * transaction: the items are locked and rechecked as still closed, their rows are read and written to a segment, and
+ * exactly the rows in that segment are deleted. The segment is fsynced before the commit, so a crash can only leave
+ * an item in both tiers, never in neither. Only the instance holding the {@link JobLocks} lease runs the job.
+ */
+@Component
+public class ClosedItemArchiver {
+  private static final Logger log = LoggerFactory.getLogger(ClosedItemArchiver.class);
+  private static final List<String> CLOSED = List.of(ContrabandStatus.DESTROYED.value(), ContrabandStatus.RELEASED.value());
+
+  private final ContrabandRepository contrabandRepository;
+  private final CustodyRepository custodyRepository;
+  private final EvidenceFileRepository evidenceFileRepository;
+  private final ItemArchiveStore archiveStore;
+  private final ChangeLog changeLog;
+  private final CollectionVersions collectionVersions;
+  private final JobLocks jobLocks;
+  private final TransactionTemplate tx;
+  private final Duration minAge;
+  private final int batchSize;
+
+  public ClosedItemArchiver(ContrabandRepository contrabandRepository, CustodyRepository custodyRepository,
+                            EvidenceFileRepository evidenceFileRepository, ItemArchiveStore archiveStore,
+                            ChangeLog changeLog, CollectionVersions collectionVersions, JobLocks jobLocks,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${app.archive.min-age:P90D}") Duration minAge,
+                            @Value("${app.archive.batch-size:1000}") int batchSize) {
+    this.contrabandRepository = contrabandRepository;
+    this.custodyRepository = custodyRepository;
+    this.evidenceFileRepository = evidenceFileRepository;
+    this.archiveStore = archiveStore;
+    this.changeLog = changeLog;
+    this.collectionVersions = collectionVersions;
+    this.jobLocks = jobLocks;
+    this.tx = new TransactionTemplate(transactionManager);
+    this.minAge = minAge;
+    this.batchSize = Math.max(1, batchSize);
+  }
+
+  @Scheduled(cron = "${app.archive.cron:0 45 2 * * *}", zone = "UTC")
+  public void archiveClosedItems() {
+    jobLocks.runExclusively(JobLocks.ITEM_ARCHIVE, this::archiveClosedItemsLocked);
+  }
+
+  private void archiveClosedItemsLocked() {
+    Instant cutoff = Instant.now().minus(minAge);
+    int total = 0;
+    while (true) {
+      List<String> candidates = contrabandRepository.findByStatusInAndUpdatedAtBefore(CLOSED, cutoff, PageRequest.of(0, batchSize))
+          .stream().map(ContrabandItem::getId).toList();
+      if (candidates.isEmpty()) break;
+      try {
+        total += archive(candidates, cutoff);
+      } catch (UncheckedIOException e) {
+        log.error("Failed to write archive segment; {} items stay in the working set", candidates.size(), e.getCause());
+        break;
+      }
+      if (candidates.size() < batchSize) break;
+    }
+    if (total > 0) log.info("Archived {} closed items", total);
+  }
+
+  private int archive(List<String> candidates, Instant cutoff) {
+    Integer archivedCount = tx.execute(status -> {
+      // Items reopened or edited since the candidate query no longer qualify; the rest stay locked until commit.
+      List<ContrabandItem> batch = contrabandRepository.lockByIdInAndStatusIn(candidates, CLOSED).stream()
+          .filter(item -> item.getUpdatedAt() != null && item.getUpdatedAt().isBefore(cutoff))
+          .toList();
+      if (batch.isEmpty()) return 0;
+      List<String> ids = batch.stream().map(ContrabandItem::getId).toList();
+      List<CustodyRecord> custodyRows = custodyRepository.findByContrabandIdIn(ids);
+      List<EvidenceFile> evidenceRows = evidenceFileRepository.findByContrabandIdIn(ids);
+      Map<String, List<CustodyRecord>> custody = custodyRows.stream().collect(Collectors.groupingBy(CustodyRecord::getContrabandId));
+      Map<String, List<EvidenceFile>> evidence = evidenceRows.stream().collect(Collectors.groupingBy(EvidenceFile::getContrabandId));
+
+      List<ArchivedItem> archived = new ArrayList<>(batch.size());
+      for (ContrabandItem item : batch) {
+        List<CustodyRecord> chain = new ArrayList<>(custody.getOrDefault(item.getId(), List.of()));
+        chain.sort(Comparator.comparing(CustodyRecord::getTransferDate, Comparator.nullsLast(Comparator.reverseOrder())));
+        archived.add(new ArchivedItem(item, chain, evidence.getOrDefault(item.getId(), List.of())));
+      }
+      try {
+        archiveStore.append(archived);
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+
+      // Delete what the segment holds, by primary key: a row that arrived after the reads above stays put.
+      List<String> custodyIds = custodyRows.stream().map(CustodyRecord::getId).toList();
+      List<String> evidenceIds = evidenceRows.stream().map(EvidenceFile::getId).toList();
+      if (!custodyIds.isEmpty()) custodyRepository.deleteByIdIn(custodyIds);
+      if (!evidenceIds.isEmpty()) evidenceFileRepository.deleteByIdIn(evidenceIds);
+      contrabandRepository.deleteAllByIdIn(ids);
+      changeLog.deleted(ChangeLog.CUSTODY, custodyIds);
+      changeLog.deleted(ChangeLog.ITEMS, ids);
+      // Custody chains read the same from the archive, so their per-item stamps stay as they are.
+      collectionVersions.bumpAfterCommit(CollectionVersions.ITEMS);
+      return batch.size();
+    });
+    return archivedCount != null ? archivedCount : 0;
+  }
+}
@@ -0,0 +1,269 @@
+package com.cms.archive;
+
+import com.cms.contraband.ContrabandItem;
+import com.cms.custody.CustodyRecord;
+import com.cms.file.EvidenceFile;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.*;
+import java.lang.ref.SoftReference;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Immutable columnar file holding one archiver batch.
+ *
+ * <pre>
+ * "CMSARC01" | int rows | int columns | (name, offset, compressedLength, rawLength) per column | column data ...
+ * </pre>
+ * Each column is deflated on its own, so key lookups only inflate the key columns and rows with similar
+ * values (statuses, units, locations) compress together. Decoded columns are kept softly reachable.
+ */
+final class ItemArchiveSegment {
+  private static final byte[] MAGIC = "CMSARC01".getBytes(StandardCharsets.US_ASCII);
+  private static final TypeReference<List<CustodyRecord>> CUSTODY_LIST = new TypeReference<>() {};
+  private static final TypeReference<List<EvidenceFile>> EVIDENCE_LIST = new TypeReference<>() {};
+
+  enum Kind { STRING, DOUBLE, INSTANT, LONG }
+
+  private record Column(String name, Kind kind, Function<ContrabandItem, Object> get, BiConsumer<ContrabandItem, Object> set) {}
+
+  private static final List<Column> ITEM_COLUMNS = List.of(
+      new Column("id", Kind.STRING, ContrabandItem::getId, (i, v) -> i.setId((String) v)),
+      new Column("seizure_number", Kind.STRING, ContrabandItem::getSeizureNumber, (i, v) -> i.setSeizureNumber((String) v)),
+      new Column("item_name", Kind.STRING, ContrabandItem::getItemName, (i, v) -> i.setItemName((String) v)),
+      new Column("description", Kind.STRING, ContrabandItem::getDescription, (i, v) -> i.setDescription((String) v)),
+      new Column("quantity", Kind.DOUBLE, ContrabandItem::getQuantity, (i, v) -> i.setQuantity((Double) v)),
+      new Column("unit", Kind.STRING, ContrabandItem::getUnit, (i, v) -> i.setUnit((String) v)),
+      new Column("estimated_value", Kind.DOUBLE, ContrabandItem::getEstimatedValue, (i, v) -> i.setEstimatedValue((Double) v)),
+      new Column("weight_kg", Kind.DOUBLE, ContrabandItem::getWeightKg, (i, v) -> i.setWeightKg((Double) v)),
+      new Column("status", Kind.STRING, ContrabandItem::getStatus, (i, v) -> i.setStatus((String) v)),
+      new Column("seizure_date", Kind.INSTANT, ContrabandItem::getSeizureDate, (i, v) -> i.setSeizureDate((Instant) v)),
+      new Column("seizure_location", Kind.STRING, ContrabandItem::getSeizureLocation, (i, v) -> i.setSeizureLocation((String) v)),
+      new Column("gps_latitude", Kind.DOUBLE, ContrabandItem::getGpsLatitude, (i, v) -> i.setGpsLatitude((Double) v)),
+      new Column("gps_longitude", Kind.DOUBLE, ContrabandItem::getGpsLongitude, (i, v) -> i.setGpsLongitude((Double) v)),
+      new Column("seized_by", Kind.STRING, ContrabandItem::getSeizedBy, (i, v) -> i.setSeizedBy((String) v)),
+      new Column("case_number", Kind.STRING, ContrabandItem::getCaseNumber, (i, v) -> i.setCaseNumber((String) v)),
+      new Column("court_case_number", Kind.STRING, ContrabandItem::getCourtCaseNumber, (i, v) -> i.setCourtCaseNumber((String) v)),
+      new Column("barcode", Kind.STRING, ContrabandItem::getBarcode, (i, v) -> i.setBarcode((String) v)),
+      new Column("rfid_tag", Kind.STRING, ContrabandItem::getRfidTag, (i, v) -> i.setRfidTag((String) v)),
+      new Column("storage_location", Kind.STRING, ContrabandItem::getStorageLocation, (i, v) -> i.setStorageLocation((String) v)),
+      new Column("created_at", Kind.INSTANT, ContrabandItem::getCreatedAt, (i, v) -> i.setCreatedAt((Instant) v)),
+      new Column("updated_at", Kind.INSTANT, ContrabandItem::getUpdatedAt, (i, v) -> i.setUpdatedAt((Instant) v)),
+      new Column("category_id", Kind.STRING, ContrabandItem::getCategoryId, (i, v) -> i.setCategoryId((String) v)),
+      new Column("version", Kind.LONG, ContrabandItem::getVersion, (i, v) -> i.setVersion((Long) v))
+  );
+  private static final String CUSTODY = "custody_json";
+  private static final String EVIDENCE = "evidence_json";
+
+  private record Entry(long offset, int compressedLength, int rawLength) {}
+
+  private final Path path;
+  private final MappedByteBuffer buffer;
+  private final int rows;
+  private final Map<String, Entry> directory;
+  private final ObjectMapper json;
+  private final ConcurrentHashMap<String, SoftReference<List<Object>>> decoded = new ConcurrentHashMap<>();
+
+  private ItemArchiveSegment(Path path, MappedByteBuffer buffer, int rows, Map<String, Entry> directory, ObjectMapper json) {
+    this.path = path;
+    this.buffer = buffer;
+    this.rows = rows;
+    this.directory = directory;
+    this.json = json;
+  }
+
+  static void write(Path target, List<ArchivedItem> items, ObjectMapper json) throws IOException {
+    List<String> names = new ArrayList<>();
+    List<byte[]> raw = new ArrayList<>();
+    for (Column c : ITEM_COLUMNS) {
+      names.add(c.name());
+      raw.add(encode(c.kind(), items.stream().map(a -> c.get().apply(a.item())).toList()));
+    }
+    names.add(CUSTODY);
+    raw.add(encode(Kind.STRING, toJson(json, items.stream().map(ArchivedItem::custody).toList())));
+    names.add(EVIDENCE);
+    raw.add(encode(Kind.STRING, toJson(json, items.stream().map(ArchivedItem::evidence).toList())));
+
+    List<byte[]> compressed = raw.stream().map(ItemArchiveSegment::deflate).toList();
+    ByteArrayOutputStream header = new ByteArrayOutputStream();
+    DataOutputStream out = new DataOutputStream(header);
+    int headerLength = MAGIC.length + 4 + 4;
+    for (String name : names) headerLength += 2 + name.getBytes(StandardCharsets.UTF_8).length + 8 + 4 + 4;
+    out.write(MAGIC);
+    out.writeInt(items.size());
+    out.writeInt(names.size());
+    long offset = headerLength;
+    for (int i = 0; i < names.size(); i++) {
+      out.writeUTF(names.get(i));
+      out.writeLong(offset);
+      out.writeInt(compressed.get(i).length);
+      out.writeInt(raw.get(i).length);
+      offset += compressed.get(i).length;
+    }
+
+    Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+    try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+      writeFully(channel, ByteBuffer.wrap(header.toByteArray()));
+      for (byte[] c : compressed) writeFully(channel, ByteBuffer.wrap(c));
+      channel.force(true);
+    } catch (IOException e) {
+      Files.deleteIfExists(temp);
+      throw e;
+    }
+    Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+    target.toFile().setReadOnly();
+  }
+
+  static ItemArchiveSegment open(Path path, ObjectMapper json) throws IOException {
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      long size = channel.size();
+      if (size > Integer.MAX_VALUE) throw new IOException("Archive segment too large to map: " + path);
+      MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+      byte[] magic = new byte[MAGIC.length];
+      buffer.get(0, magic);
+      if (!Arrays.equals(magic, MAGIC)) throw new IOException("Not an archive segment: " + path);
+      int rows = buffer.getInt(MAGIC.length);
+      int columns = buffer.getInt(MAGIC.length + 4);
+      int pos = MAGIC.length + 8;
+      Map<String, Entry> directory = new HashMap<>();
+      for (int i = 0; i < columns; i++) {
+        int nameLength = Short.toUnsignedInt(buffer.getShort(pos));
+        byte[] name = new byte[nameLength];
+        buffer.get(pos + 2, name);
+        pos += 2 + nameLength;
+        directory.put(new String(name, StandardCharsets.UTF_8), new Entry(buffer.getLong(pos), buffer.getInt(pos + 8), buffer.getInt(pos + 12)));
+        pos += 16;
+      }
+      return new ItemArchiveSegment(path, buffer, rows, directory, json);
+    }
+  }
+
+  Path path() { return path; }
+
+  int rows() { return rows; }
+
+  /** Values of a key column, for building the in-memory lookup index. */
+  List<String> keys(String column) throws IOException {
+    List<Object> values = column(column, Kind.STRING);
+    List<String> out = new ArrayList<>(values.size());
+    values.forEach(v -> out.add((String) v));
+    return out;
+  }
+
+  ArchivedItem row(int row) throws IOException {
+    ContrabandItem item = new ContrabandItem();
+    for (Column c : ITEM_COLUMNS) c.set().accept(item, column(c.name(), c.kind()).get(row));
+    String custody = (String) column(CUSTODY, Kind.STRING).get(row);
+    String evidence = (String) column(EVIDENCE, Kind.STRING).get(row);
+    return new ArchivedItem(item,
+        custody != null ? json.readValue(custody, CUSTODY_LIST) : List.of(),
+        evidence != null ? json.readValue(evidence, EVIDENCE_LIST) : List.of());
+  }
+
+  private List<Object> column(String name, Kind kind) throws IOException {
+    SoftReference<List<Object>> ref = decoded.get(name);
+    List<Object> values = ref != null ? ref.get() : null;
+    if (values != null) return values;
+    Entry entry = directory.get(name);
+    if (entry == null) throw new IOException("Missing column " + name + " in " + path);
+    values = decode(kind, inflate(entry), rows);
+    decoded.put(name, new SoftReference<>(values));
+    return values;
+  }
+
+  private byte[] inflate(Entry entry) throws IOException {
+    byte[] raw = new byte[entry.rawLength()];
+    Inflater inflater = new Inflater();
+    try {
+      inflater.setInput(buffer.slice((int) entry.offset(), entry.compressedLength()));
+      if (inflater.inflate(raw) != raw.length) throw new IOException("Corrupt column in " + path);
+      return raw;
+    } catch (DataFormatException e) {
+      throw new IOException("Corrupt column in " + path, e);
+    } finally {
+      inflater.end();
+    }
+  }
+
+  private static List<Object> toJson(ObjectMapper json, List<? extends List<?>> values) throws IOException {
+    List<Object> out = new ArrayList<>(values.size());
+    for (List<?> v : values) out.add(v == null || v.isEmpty() ? null : json.writeValueAsString(v));
+    return out;
+  }
+
+  private static byte[] encode(Kind kind, List<Object> values) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    DataOutputStream out = new DataOutputStream(bytes);
+    for (Object v : values) {
+      out.writeBoolean(v != null);
+      if (v == null) continue;
+      switch (kind) {
+        case STRING -> {
+          byte[] s = ((String) v).getBytes(StandardCharsets.UTF_8);
+          out.writeInt(s.length);
+          out.write(s);
+        }
+        case DOUBLE -> out.writeDouble((Double) v);
+        case LONG -> out.writeLong((Long) v);
+        case INSTANT -> {
+          out.writeLong(((Instant) v).getEpochSecond());
+          out.writeInt(((Instant) v).getNano());
+        }
+      }
+    }
+    return bytes.toByteArray();
+  }
+
+  private static List<Object> decode(Kind kind, byte[] raw, int rows) throws IOException {
+    DataInputStream in = new DataInputStream(new ByteArrayInputStream(raw));
+    List<Object> values = new ArrayList<>(rows);
+    for (int i = 0; i < rows; i++) {
+      if (!in.readBoolean()) {
+        values.add(null);
+        continue;
+      }
+      values.add(switch (kind) {
+        case STRING -> {
+          byte[] s = new byte[in.readInt()];
+          in.readFully(s);
+          yield new String(s, StandardCharsets.UTF_8);
+        }
+        case DOUBLE -> in.readDouble();
+        case LONG -> in.readLong();
+        case INSTANT -> Instant.ofEpochSecond(in.readLong(), in.readInt());
+      });
+    }
+    return Collections.unmodifiableList(values);
+  }
+
+  private static byte[] deflate(byte[] raw) {
+    Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+    try {
+      deflater.setInput(raw);
+      deflater.finish();
+      ByteArrayOutputStream out = new ByteArrayOutputStream(raw.length / 4 + 64);
+      byte[] chunk = new byte[8192];
+      while (!deflater.finished()) out.write(chunk, 0, deflater.deflate(chunk));
+      return out.toByteArray();
+    } finally {
+      deflater.end();
+    }
+  }
+
+  private static void writeFully(FileChannel channel, ByteBuffer data) throws IOException {
+    while (data.hasRemaining()) channel.write(data);
+  }
+}
@@ -0,0 +1,157 @@
+package com.cms.archive;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Archive tier for closed seizures. Items live in columnar segment files; an in-memory index maps item ID,
+ * seizure number and case number to (segment, row), so a lookup inflates a single segment's columns. The directory
+ * is shared by every instance and only the one running the archiver writes to it, so the others add segments
+ * published there whenever the directory's modification time moves.
+ */
+@Component
+public class ItemArchiveStore {
+  private static final Logger log = LoggerFactory.getLogger(ItemArchiveStore.class);
+  private static final String SUFFIX = ".col";
+
+  private record Location(int segment, int row) {}
+
+  private final Path dir;
+  private final ObjectMapper json;
+  private final List<ItemArchiveSegment> segments = new CopyOnWriteArrayList<>();
+  private final Map<String, Location> byId = new ConcurrentHashMap<>();
+  private final Map<String, Location> bySeizureNumber = new ConcurrentHashMap<>();
+  private final Map<String, List<Location>> byCaseNumber = new ConcurrentHashMap<>();
+  private final Set<Path> registered = ConcurrentHashMap.newKeySet();
+  private volatile FileTime listedAt;
+
+  public ItemArchiveStore(@Value("${app.archive.dir:${user.dir}/archive}") String dir, ObjectMapper json) throws IOException {
+    this.dir = Paths.get(dir);
+    this.json = json;
+    Files.createDirectories(this.dir);
+    rescan();
+  }
+
+  public boolean isEmpty() {
+    refresh();
+    return byId.isEmpty();
+  }
+
+  public int size() {
+    refresh();
+    return byId.size();
+  }
+
+  /** Writes one batch as a new segment and makes it visible to lookups. */
+  public synchronized void append(List<ArchivedItem> items) throws IOException {
+    if (items.isEmpty()) return;
+    Path target = dir.resolve(String.format("items-%013d-%04d%s", System.currentTimeMillis(), segments.size(), SUFFIX));
+    ItemArchiveSegment.write(target, items, json);
+    register(ItemArchiveSegment.open(target, json));
+  }
+
+  public Optional<ArchivedItem> findById(String id) {
+    refresh();
+    Location at = id != null ? byId.get(id) : null;
+    return at != null ? Optional.of(read(at)) : Optional.empty();
+  }
+
+  public Optional<ArchivedItem> findBySeizureNumber(String seizureNumber) {
+    refresh();
+    Location at = seizureNumber != null ? bySeizureNumber.get(seizureNumber) : null;
+    return at != null ? Optional.of(read(at)) : Optional.empty();
+  }
+
+  public List<ArchivedItem> findByCaseNumber(String caseNumber) {
+    refresh();
+    List<Location> at = caseNumber != null ? byCaseNumber.get(caseNumber) : null;
+    if (at == null) return List.of();
+    return at.stream().map(this::read).toList();
+  }
+
+  public int segmentCount() {
+    refresh();
+    return segments.size();
+  }
+
+  /** The archived items whose current copy is in segment {@code index}, in row order. */
+  public List<ArchivedItem> itemsIn(int index) throws IOException {
+    ItemArchiveSegment segment = segments.get(index);
+    List<String> ids = segment.keys("id");
+    List<ArchivedItem> out = new ArrayList<>();
+    for (int row = 0; row < segment.rows(); row++) {
+      if (new Location(index, row).equals(byId.get(ids.get(row)))) out.add(segment.row(row));
+    }
+    return out;
+  }
+
+  private void refresh() {
+    try {
+      if (!Files.getLastModifiedTime(dir).equals(listedAt)) rescan();
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to list archive directory " + dir, e);
+    }
+  }
+
+  /** Registers segments not seen yet, oldest first, so a re-archived item resolves to its newest copy. */
+  private synchronized void rescan() throws IOException {
+    FileTime modified = Files.getLastModifiedTime(dir);
+    if (modified.equals(listedAt)) return;
+    List<Path> files = new ArrayList<>();
+    try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, "items-*" + SUFFIX)) {
+      stream.forEach(files::add);
+    }
+    Collections.sort(files);
+    for (Path p : files) {
+      if (registered.contains(p)) continue;
+      try {
+        register(ItemArchiveSegment.open(p, json));
+      } catch (IOException e) {
+        log.error("Skipping unreadable archive segment {}", p, e);
+      }
+    }
+    listedAt = modified;
+  }
+
+  private synchronized void register(ItemArchiveSegment segment) throws IOException {
+    int index = segments.size();
+    List<String> ids = segment.keys("id");
+    List<String> seizureNumbers = segment.keys("seizure_number");
+    List<String> caseNumbers = segment.keys("case_number");
+    segments.add(segment);
+    registered.add(segment.path());
+    for (int row = 0; row < segment.rows(); row++) {
+      Location at = new Location(index, row);
+      Location previous = byId.put(ids.get(row), at);
+      if (previous != null) removeCaseEntry(previous);
+      if (seizureNumbers.get(row) != null) bySeizureNumber.put(seizureNumbers.get(row), at);
+      if (caseNumbers.get(row) != null) byCaseNumber.computeIfAbsent(caseNumbers.get(row), k -> new CopyOnWriteArrayList<>()).add(at);
+    }
+  }
+
+  private void removeCaseEntry(Location stale) {
+    byCaseNumber.values().forEach(list -> list.remove(stale));
+  }
+
+  private ArchivedItem read(Location at) {
+    try {
+      return segments.get(at.segment()).row(at.row());
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to read archived item", e);
+    }
+  }
+}
@@ -0,0 +1,89 @@
+package com.cms.audit;
+
+import com.cms.scheduling.JobLocks;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.List;
+
+/**
+ * Rolls closed months out of {@code audit_logs} into cold segments, keeping only the last
+ * {@code app.audit.hot-months} months (including the current one) in the table. Every instance fires the cron, and
+ * the {@link JobLocks} lease lets one of them run it; segments go to {@code app.audit.segments.dir}, which must be
+ * storage every instance mounts.
+ */
+@Component
+public class AuditArchiver {
+  private static final Logger log = LoggerFactory.getLogger(AuditArchiver.class);
+  private static final int PAGE_SIZE = 2000;
+
+  private final AuditRepository auditRepository;
+  private final AuditSegmentStore segmentStore;
+  private final JobLocks jobLocks;
+  private final int hotMonths;
+
+  public AuditArchiver(AuditRepository auditRepository, AuditSegmentStore segmentStore, JobLocks jobLocks,
+                       @Value("${app.audit.hot-months:3}") int hotMonths) {
+    this.auditRepository = auditRepository;
+    this.segmentStore = segmentStore;
+    this.jobLocks = jobLocks;
+    this.hotMonths = Math.max(1, hotMonths);
+  }
+
+  @Scheduled(cron = "${app.audit.archive-cron:0 15 2 * * *}", zone = "UTC")
+  public void rollClosedMonths() {
+    jobLocks.runExclusively(JobLocks.AUDIT_ARCHIVE, this::rollClosedMonthsLocked);
+  }
+
+  private void rollClosedMonthsLocked() {
+    Instant oldest = auditRepository.oldestCreatedAt();
+    if (oldest == null) return;
+    YearMonth firstHot = YearMonth.now(ZoneOffset.UTC).minusMonths(hotMonths - 1L);
+    for (YearMonth month = YearMonth.from(oldest.atZone(ZoneOffset.UTC)); month.isBefore(firstHot); month = month.plusMonths(1)) {
+      try {
+        roll(month);
+      } catch (IOException e) {
+        log.error("Failed to archive audit logs for {}; rows stay in the hot table", month, e);
+        return;
+      }
+    }
+  }
+
+  void roll(YearMonth month) throws IOException {
+    Instant from = month.atDay(1).atStartOfDay(ZoneOffset.UTC).toInstant();
+    Instant to = month.plusMonths(1).atDay(1).atStartOfDay(ZoneOffset.UTC).toInstant();
+
+    // A segment that already exists was published by a run that stopped before deleting the hot rows.
+    if (!segmentStore.contains(month)) {
+      long rows = 0;
+      try (AuditSegment.Writer writer = segmentStore.writer(month)) {
+        Instant afterCreatedAt = from.minusNanos(1);
+        String afterId = "";
+        List<AuditLog> page;
+        do {
+          page = auditRepository.findRangeAfter(from, to, afterCreatedAt, afterId, PageRequest.of(0, PAGE_SIZE));
+          for (AuditLog row : page) writer.append(row);
+          rows += page.size();
+          if (!page.isEmpty()) {
+            AuditLog last = page.get(page.size() - 1);
+            afterCreatedAt = last.getCreatedAt();
+            afterId = last.getId();
+          }
+        } while (page.size() == PAGE_SIZE);
+        if (rows == 0) return;
+        writer.publish();
+      }
+      segmentStore.published(month);
+      log.info("Archived {} audit rows for {}", rows, month);
+    }
+    auditRepository.deleteCreatedBetween(from, to);
+  }
+}
@@ -1,25 +1,49 @@
 package com.cms.audit;
 
+import com.cms.cache.CollectionVersions;
+import com.cms.cache.RequestCoalescer;
+import com.cms.datasource.PrimaryReads;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.time.Instant;
+import java.util.Arrays;
 import java.util.List;
 
 @RestController
 @RequestMapping("/audit-logs")
 public class AuditController {
-  private final AuditRepository auditRepository;
+  private final AuditQueryService auditQueryService;
+  private final RequestCoalescer requestCoalescer;
+  private final CollectionVersions collectionVersions;
 
-  public AuditController(AuditRepository auditRepository) {
-    this.auditRepository = auditRepository;
+  public AuditController(AuditQueryService auditQueryService, RequestCoalescer requestCoalescer,
+                         CollectionVersions collectionVersions) {
+    this.auditQueryService = auditQueryService;
+    this.requestCoalescer = requestCoalescer;
+    this.collectionVersions = collectionVersions;
   }
 
   @GetMapping
-  public ResponseEntity<List<AuditLog>> list(Authentication auth) {
+  public ResponseEntity<List<AuditLog>> list(
+      @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+      @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+      @RequestParam(value = "record_id", required = false) String recordId,
+      @RequestParam(value = "user_id", required = false) String userId,
+      @RequestParam(value = "action", required = false) String action,
+      @RequestParam(value = "limit", defaultValue = "1000") int limit,
+      Authentication auth) {
     // In a real setup, check ROLE_ADMIN or ROLE_AUDITOR
-    return ResponseEntity.ok(auditRepository.findAll());
+    var query = new AuditQueryService.Query(from, to, recordId, userId, action, limit);
+    // Versioned on the primary, so the shared body is read there too.
+    long version = collectionVersions.current(CollectionVersions.AUDIT_LOGS);
+    return ResponseEntity.ok(requestCoalescer.execute("audit-logs.list",
+        Arrays.asList(version, from, to, recordId, userId, action, limit),
+        () -> PrimaryReads.call(() -> auditQueryService.find(query))));
   }
-}
\ No newline at end of file
+}
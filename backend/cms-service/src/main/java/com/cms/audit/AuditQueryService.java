@@ -0,0 +1,85 @@
+package com.cms.audit;
+
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.*;
+
+/**
+ * Reads audit rows across the hot {@code audit_logs} table and the cold monthly segments, newest first.
+ * Hot rows always cover later months than cold ones, so results are hot rows followed by cold rows.
+ */
+@Service
+public class AuditQueryService {
+  public static final int MAX_LIMIT = 5000;
+
+  private final AuditRepository auditRepository;
+  private final AuditSegmentStore segmentStore;
+
+  public AuditQueryService(AuditRepository auditRepository, AuditSegmentStore segmentStore) {
+    this.auditRepository = auditRepository;
+    this.segmentStore = segmentStore;
+  }
+
+  public record Query(Instant from, Instant to, String recordId, String userId, String action, int limit) {}
+
+  public List<AuditLog> find(Query q) {
+    Instant from = q.from() != null ? q.from() : Instant.EPOCH;
+    Instant to = q.to() != null ? q.to() : Instant.now().plusSeconds(1);
+    int limit = Math.max(1, Math.min(q.limit(), MAX_LIMIT));
+
+    Specification<AuditLog> spec = (root, query, cb) -> {
+      List<Predicate> where = new ArrayList<>();
+      where.add(cb.greaterThanOrEqualTo(root.get("createdAt"), from));
+      where.add(cb.lessThan(root.get("createdAt"), to));
+      if (q.recordId() != null) where.add(cb.equal(root.get("recordId"), q.recordId()));
+      if (q.userId() != null) where.add(cb.equal(root.get("userId"), q.userId()));
+      if (q.action() != null) where.add(cb.equal(root.get("action"), q.action()));
+      return cb.and(where.toArray(Predicate[]::new));
+    };
+    List<AuditLog> result = new ArrayList<>(
+        auditRepository.findAll(spec, PageRequest.of(0, limit, Sort.by(Sort.Direction.DESC, "createdAt"))).getContent());
+    if (result.size() >= limit) return result;
+
+    // A month being rolled can briefly exist in both tiers; keep the hot copy.
+    Set<String> seen = new HashSet<>();
+    result.forEach(a -> seen.add(a.getId()));
+    for (AuditLog cold : segmentStore.query(from, to, a -> matches(a, q), limit)) {
+      if (result.size() >= limit) break;
+      if (seen.add(cold.getId())) result.add(cold);
+    }
+    return result;
+  }
+
+  /**
+   * One record's rows strictly before ({@code before}, {@code beforeId}) in (createdAt, id) order, newest first,
+   * across both tiers. Nothing is logged for a record before it exists, so {@code from} (its creation time) keeps
+   * the cold scan to the months that can hold it.
+   */
+  public List<AuditLog> findRecordPageBefore(String recordId, Instant from, Instant before, String beforeId, int limit) {
+    List<AuditLog> result = new ArrayList<>(
+        auditRepository.findPageBefore(recordId, from, before, beforeId, PageRequest.of(0, limit)));
+    if (result.size() >= limit) return result;
+
+    Set<String> seen = new HashSet<>();
+    result.forEach(a -> seen.add(a.getId()));
+    // Segments hold each month in (createdAt, id) order and are scanned backwards, so ties come out id-descending.
+    java.util.function.Predicate<AuditLog> filter = a -> recordId.equals(a.getRecordId())
+        && (a.getCreatedAt().isBefore(before) || (a.getCreatedAt().equals(before) && a.getId().compareTo(beforeId) < 0));
+    for (AuditLog cold : segmentStore.query(from, before.plusNanos(1), filter, limit)) {
+      if (result.size() >= limit) break;
+      if (seen.add(cold.getId())) result.add(cold);
+    }
+    return result;
+  }
+
+  private static boolean matches(AuditLog a, Query q) {
+    return (q.recordId() == null || q.recordId().equals(a.getRecordId()))
+        && (q.userId() == null || q.userId().equals(a.getUserId()))
+        && (q.action() == null || q.action().equals(a.getAction()));
+  }
+}
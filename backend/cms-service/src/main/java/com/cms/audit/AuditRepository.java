@@ -1,5 +1,39 @@
 package com.cms.audit;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
-public interface AuditRepository extends JpaRepository<AuditLog, String> {}
\ No newline at end of file
+import java.time.Instant;
+import java.util.List;
+
+public interface AuditRepository extends JpaRepository<AuditLog, String>, JpaSpecificationExecutor<AuditLog> {
+
+  @Query("select a from AuditLog a where a.createdAt >= :from and a.createdAt < :to "
+      + "and (a.createdAt > :afterCreatedAt or (a.createdAt = :afterCreatedAt and a.id > :afterId)) "
+      + "order by a.createdAt, a.id")
+  List<AuditLog> findRangeAfter(@Param("from") Instant from, @Param("to") Instant to,
+                                @Param("afterCreatedAt") Instant afterCreatedAt, @Param("afterId") String afterId,
+                                Pageable pageable);
+
+  /** One record's rows strictly before ({@code before}, {@code beforeId}) in (createdAt, id) order, newest first. */
+  @Query("select a from AuditLog a where a.recordId = :recordId and a.createdAt >= :from "
+      + "and (a.createdAt < :before or (a.createdAt = :before and a.id < :beforeId)) "
+      + "order by a.createdAt desc, a.id desc")
+  List<AuditLog> findPageBefore(@Param("recordId") String recordId, @Param("from") Instant from,
+                                @Param("before") Instant before, @Param("beforeId") String beforeId, Pageable pageable);
+
+  boolean existsByRecordIdAndAction(String recordId, String action);
+
+  @Query("select min(a.createdAt) from AuditLog a")
+  Instant oldestCreatedAt();
+
+  @Modifying
+  @Transactional
+  @Query("delete from AuditLog a where a.createdAt >= :from and a.createdAt < :to")
+  int deleteCreatedBetween(@Param("from") Instant from, @Param("to") Instant to);
+}
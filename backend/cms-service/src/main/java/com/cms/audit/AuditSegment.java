@@ -0,0 +1,212 @@
+package com.cms.audit;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Immutable, memory-mapped file holding one closed month of audit rows.
+ *
+ * <pre>
+ * "CMSAUD01" | block 0 | block 1 | ... | index entries | int blockCount | long indexOffset | "CMSAUD01"
+ * </pre>
+ * Rows are sorted by {@code createdAt} and deflated in blocks of {@link #BLOCK_ROWS}. The sparse index keeps the
+ * time range, offset and sizes of each block, so a time-bounded query only inflates the blocks it overlaps.
+ */
+final class AuditSegment {
+  static final int BLOCK_ROWS = 512;
+  private static final byte[] MAGIC = "CMSAUD01".getBytes();
+  private static final int INDEX_ENTRY_BYTES = 8 + 8 + 8 + 4 + 4 + 4;
+  private static final int TRAILER_BYTES = 4 + 8 + MAGIC.length;
+
+  private record Block(long minMillis, long maxMillis, long offset, int compressedLength, int rawLength, int rows) {}
+
+  private final Path path;
+  private final MappedByteBuffer buffer;
+  private final List<Block> blocks;
+
+  private AuditSegment(Path path, MappedByteBuffer buffer, List<Block> blocks) {
+    this.path = path;
+    this.buffer = buffer;
+    this.blocks = blocks;
+  }
+
+  static AuditSegment open(Path path) throws IOException {
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      long size = channel.size();
+      if (size < MAGIC.length + TRAILER_BYTES) throw new IOException("Truncated audit segment " + path);
+      if (size > Integer.MAX_VALUE) throw new IOException("Audit segment too large to map: " + path);
+      MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+      checkMagic(buffer, 0, path);
+      checkMagic(buffer, (int) size - MAGIC.length, path);
+      int blockCount = buffer.getInt((int) size - TRAILER_BYTES);
+      long indexOffset = buffer.getLong((int) size - TRAILER_BYTES + 4);
+      List<Block> blocks = new ArrayList<>(blockCount);
+      int pos = (int) indexOffset;
+      for (int i = 0; i < blockCount; i++, pos += INDEX_ENTRY_BYTES) {
+        blocks.add(new Block(buffer.getLong(pos), buffer.getLong(pos + 8), buffer.getLong(pos + 16),
+            buffer.getInt(pos + 24), buffer.getInt(pos + 28), buffer.getInt(pos + 32)));
+      }
+      return new AuditSegment(path, buffer, blocks);
+    }
+  }
+
+  Path path() { return path; }
+
+  /** Matching rows in {@code [from, to)}, newest first, at most {@code limit}. */
+  List<AuditLog> scan(Instant from, Instant to, Predicate<AuditLog> filter, int limit) throws IOException {
+    List<AuditLog> out = new ArrayList<>();
+    long fromMillis = from.toEpochMilli();
+    long toMillis = to.toEpochMilli();
+    for (int b = blocks.size() - 1; b >= 0 && out.size() < limit; b--) {
+      Block block = blocks.get(b);
+      // Block bounds are whole milliseconds: a block starting in the millisecond of to can still hold rows before it.
+      if (block.maxMillis() < fromMillis || block.minMillis() > toMillis) continue;
+      List<AuditLog> rows = readBlock(block);
+      for (int i = rows.size() - 1; i >= 0 && out.size() < limit; i--) {
+        AuditLog row = rows.get(i);
+        if (!row.getCreatedAt().isBefore(from) && row.getCreatedAt().isBefore(to) && filter.test(row)) out.add(row);
+      }
+    }
+    return out;
+  }
+
+  private List<AuditLog> readBlock(Block block) throws IOException {
+    ByteBuffer compressed = buffer.slice((int) block.offset(), block.compressedLength());
+    byte[] raw = new byte[block.rawLength()];
+    Inflater inflater = new Inflater();
+    try {
+      inflater.setInput(compressed);
+      int n = inflater.inflate(raw);
+      if (n != raw.length) throw new IOException("Corrupt block in " + path);
+    } catch (DataFormatException e) {
+      throw new IOException("Corrupt block in " + path, e);
+    } finally {
+      inflater.end();
+    }
+    DataInputStream in = new DataInputStream(new ByteArrayInputStream(raw));
+    List<AuditLog> rows = new ArrayList<>(block.rows());
+    for (int i = 0; i < block.rows(); i++) {
+      AuditLog log = new AuditLog();
+      log.setId(readString(in));
+      log.setUserId(readString(in));
+      log.setAction(readString(in));
+      log.setTableName(readString(in));
+      log.setRecordId(readString(in));
+      log.setNewValuesJson(readString(in));
+      log.setCreatedAt(Instant.ofEpochSecond(in.readLong(), in.readInt()));
+      rows.add(log);
+    }
+    return rows;
+  }
+
+  private static void checkMagic(ByteBuffer buffer, int at, Path path) throws IOException {
+    for (int i = 0; i < MAGIC.length; i++) {
+      if (buffer.get(at + i) != MAGIC[i]) throw new IOException("Not an audit segment: " + path);
+    }
+  }
+
+  private static String readString(DataInputStream in) throws IOException {
+    return in.readBoolean() ? in.readUTF() : null;
+  }
+
+  /** Streams rows (in ascending {@code createdAt} order) into a temp file and publishes it atomically. */
+  static final class Writer implements Closeable {
+    private final Path target;
+    private final Path temp;
+    private final FileChannel channel;
+    private final List<Block> blocks = new ArrayList<>();
+    private final List<AuditLog> pending = new ArrayList<>(BLOCK_ROWS);
+    private final Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+    private long position;
+    private boolean published;
+
+    Writer(Path target) throws IOException {
+      this.target = target;
+      this.temp = target.resolveSibling(target.getFileName() + ".tmp");
+      this.channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+      write(ByteBuffer.wrap(MAGIC));
+    }
+
+    void append(AuditLog row) throws IOException {
+      pending.add(row);
+      if (pending.size() == BLOCK_ROWS) flushBlock();
+    }
+
+    void publish() throws IOException {
+      flushBlock();
+      long indexOffset = position;
+      ByteBuffer index = ByteBuffer.allocate(blocks.size() * INDEX_ENTRY_BYTES + TRAILER_BYTES);
+      for (Block b : blocks) {
+        index.putLong(b.minMillis()).putLong(b.maxMillis()).putLong(b.offset())
+            .putInt(b.compressedLength()).putInt(b.rawLength()).putInt(b.rows());
+      }
+      index.putInt(blocks.size()).putLong(indexOffset).put(MAGIC).flip();
+      write(index);
+      channel.force(true);
+      channel.close();
+      Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+      target.toFile().setReadOnly();
+      published = true;
+    }
+
+    private void flushBlock() throws IOException {
+      if (pending.isEmpty()) return;
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      DataOutputStream out = new DataOutputStream(bytes);
+      for (AuditLog row : pending) {
+        writeString(out, row.getId());
+        writeString(out, row.getUserId());
+        writeString(out, row.getAction());
+        writeString(out, row.getTableName());
+        writeString(out, row.getRecordId());
+        writeString(out, row.getNewValuesJson());
+        out.writeLong(row.getCreatedAt().getEpochSecond());
+        out.writeInt(row.getCreatedAt().getNano());
+      }
+      byte[] raw = bytes.toByteArray();
+      deflater.reset();
+      deflater.setInput(raw);
+      deflater.finish();
+      ByteArrayOutputStream compressed = new ByteArrayOutputStream(raw.length / 4 + 64);
+      byte[] chunk = new byte[8192];
+      while (!deflater.finished()) {
+        int n = deflater.deflate(chunk);
+        compressed.write(chunk, 0, n);
+      }
+      byte[] data = compressed.toByteArray();
+      long min = pending.get(0).getCreatedAt().toEpochMilli();
+      long max = pending.get(pending.size() - 1).getCreatedAt().toEpochMilli();
+      blocks.add(new Block(min, max, position, data.length, raw.length, pending.size()));
+      write(ByteBuffer.wrap(data));
+      pending.clear();
+    }
+
+    private void write(ByteBuffer data) throws IOException {
+      while (data.hasRemaining()) position += channel.write(data);
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+      out.writeBoolean(value != null);
+      if (value != null) out.writeUTF(value);
+    }
+
+    @Override
+    public void close() throws IOException {
+      deflater.end();
+      if (!published) {
+        channel.close();
+        Files.deleteIfExists(temp);
+      }
+    }
+  }
+}
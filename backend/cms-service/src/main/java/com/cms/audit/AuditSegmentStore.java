@@ -0,0 +1,122 @@
+package com.cms.audit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Predicate;
+
+/**
+ * Cold audit storage: one {@link AuditSegment} file per closed UTC month. Segments are opened and mapped on first use.
+ * The directory is shared by every instance, and only one of them writes to it, so readers pick up segments
+ * published elsewhere by listing the directory again whenever its modification time moves.
+ */
+@Component
+public class AuditSegmentStore {
+  private static final Logger log = LoggerFactory.getLogger(AuditSegmentStore.class);
+  private static final String SUFFIX = ".seg";
+
+  private final Path dir;
+  private final NavigableMap<YearMonth, Path> files = new ConcurrentSkipListMap<>();
+  private final ConcurrentSkipListMap<YearMonth, AuditSegment> open = new ConcurrentSkipListMap<>();
+  private volatile FileTime listedAt;
+
+  public AuditSegmentStore(@Value("${app.audit.segments.dir:${user.dir}/audit-segments}") String dir) throws IOException {
+    this.dir = Paths.get(dir);
+    Files.createDirectories(this.dir);
+    rescan();
+  }
+
+  public boolean contains(YearMonth month) {
+    refresh();
+    return files.containsKey(month);
+  }
+
+  public YearMonth oldestMonth() {
+    refresh();
+    return files.isEmpty() ? null : files.firstKey();
+  }
+
+  AuditSegment.Writer writer(YearMonth month) throws IOException {
+    return new AuditSegment.Writer(pathFor(month));
+  }
+
+  void published(YearMonth month) {
+    files.put(month, pathFor(month));
+  }
+
+  /** Matching cold rows in {@code [from, to)}, newest first, at most {@code limit}. */
+  public List<AuditLog> query(Instant from, Instant to, Predicate<AuditLog> filter, int limit) {
+    List<AuditLog> out = new ArrayList<>();
+    refresh();
+    if (files.isEmpty() || !from.isBefore(to)) return out;
+    YearMonth first = YearMonth.from(from.atZone(ZoneOffset.UTC));
+    YearMonth last = YearMonth.from(to.minusNanos(1).atZone(ZoneOffset.UTC));
+    for (YearMonth month : files.subMap(first, true, last, true).descendingKeySet()) {
+      if (out.size() >= limit) break;
+      try {
+        out.addAll(segment(month).scan(from, to, filter, limit - out.size()));
+      } catch (IOException e) {
+        throw new UncheckedIOException("Failed to read audit segment for " + month, e);
+      }
+    }
+    return out;
+  }
+
+  private void refresh() {
+    try {
+      if (!Files.getLastModifiedTime(dir).equals(listedAt)) rescan();
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to list audit segment directory " + dir, e);
+    }
+  }
+
+  private synchronized void rescan() throws IOException {
+    FileTime modified = Files.getLastModifiedTime(dir);
+    if (modified.equals(listedAt)) return;
+    try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, "audit-*" + SUFFIX)) {
+      for (Path p : stream) {
+        String name = p.getFileName().toString();
+        try {
+          files.put(YearMonth.parse(name.substring("audit-".length(), name.length() - SUFFIX.length())), p);
+        } catch (DateTimeParseException e) {
+          log.warn("Ignoring unexpected file in audit segment directory: {}", p);
+        }
+      }
+    }
+    listedAt = modified;
+  }
+
+  private AuditSegment segment(YearMonth month) throws IOException {
+    AuditSegment segment = open.get(month);
+    if (segment != null) return segment;
+    synchronized (open) {
+      segment = open.get(month);
+      if (segment == null) {
+        segment = AuditSegment.open(files.get(month));
+        open.put(month, segment);
+      }
+      return segment;
+    }
+  }
+
+  private Path pathFor(YearMonth month) {
+    return dir.resolve("audit-" + month + SUFFIX);
+  }
+}
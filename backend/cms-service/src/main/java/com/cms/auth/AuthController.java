@@ -1,7 +1,9 @@
 package com.cms.auth;
 
+import com.cms.cache.CollectionVersions;
 import com.cms.security.JwtService;
 import com.cms.user.User;
+import com.cms.user.UserDirectory;
 import com.cms.user.UserRepository;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
@@ -9,6 +11,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.HashMap;
@@ -20,11 +23,15 @@ public class AuthController {
 
   private final UserRepository userRepository;
   private final JwtService jwtService;
+  private final CollectionVersions collectionVersions;
+  private final UserDirectory userDirectory;
   private final PasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
 
-  public AuthController(UserRepository userRepository, JwtService jwtService) {
+  public AuthController(UserRepository userRepository, JwtService jwtService, CollectionVersions collectionVersions, UserDirectory userDirectory) {
     this.userRepository = userRepository;
     this.jwtService = jwtService;
+    this.collectionVersions = collectionVersions;
+    this.userDirectory = userDirectory;
   }
 
   public record LoginRequest(@Email String email, @NotBlank String password) {}
@@ -63,6 +70,7 @@ public class AuthController {
                                 String badgeNumber, String department, String phone) {}
 
   @PostMapping("/register")
+  @Transactional
   public ResponseEntity<?> register(@RequestBody RegisterRequest request) {
     if (userRepository.findByEmail(request.email()).isPresent()) {
       return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", "Email already exists"));
@@ -76,6 +84,8 @@ public class AuthController {
     user.setPhone(request.phone());
     user.setPasswordHash(passwordEncoder.encode(request.password()));
     userRepository.save(user);
+    collectionVersions.bump(CollectionVersions.USERS);
+    userDirectory.requestRefresh();
     return ResponseEntity.status(HttpStatus.CREATED).body(Map.of("id", user.getId()));
   }
 }
\ No newline at end of file
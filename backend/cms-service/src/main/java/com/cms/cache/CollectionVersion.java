@@ -0,0 +1,16 @@
+package com.cms.cache;
+
+import jakarta.persistence.*;
+
+@Entity
+@Table(name = "collection_versions")
+public class CollectionVersion {
+  @Id
+  private String name;
+  private long version;
+
+  public String getName() { return name; }
+  public void setName(String name) { this.name = name; }
+  public long getVersion() { return version; }
+  public void setVersion(long version) { this.version = version; }
+}
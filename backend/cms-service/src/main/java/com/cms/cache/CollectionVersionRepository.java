@@ -0,0 +1,18 @@
+package com.cms.cache;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface CollectionVersionRepository extends JpaRepository<CollectionVersion, String> {
+  @Modifying
+  @Query("update CollectionVersion v set v.version = v.version + 1 where v.name = :name")
+  int increment(@Param("name") String name);
+
+  @Modifying
+  @Query(value = "INSERT INTO collection_versions (name, version) "
+      + "SELECT :name, :version WHERE NOT EXISTS (SELECT 1 FROM collection_versions WHERE name = :name)",
+      nativeQuery = true)
+  int insertIfAbsent(@Param("name") String name, @Param("version") long version);
+}
@@ -0,0 +1,94 @@
+package com.cms.cache;
+
+import com.cms.datasource.PrimaryReads;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Arrays;
+
+/**
+ * Version stamps for read-mostly collections, kept in {@code collection_versions} so every instance hands out the
+ * same ETag. Writers bump the stamp in their own transaction, or, for the busy item and audit collections, just
+ * after it commits, and readers turn it into a strong ETag with one primary-key lookup on the primary. A stamp
+ * starts at the creation time in milliseconds, so a recreated database never reissues an old tag.
+ */
+@Component
+public class CollectionVersions {
+  public static final String CATEGORIES = "categories";
+  public static final String USERS = "users";
+  public static final String ITEMS = "contraband_items";
+  public static final String AUDIT_LOGS = "audit_logs";
+
+  private static final Logger log = LoggerFactory.getLogger(CollectionVersions.class);
+
+  private final CollectionVersionRepository repository;
+  private final TransactionTemplate requiresNew;
+
+  public CollectionVersions(CollectionVersionRepository repository, PlatformTransactionManager transactionManager) {
+    this.repository = repository;
+    this.requiresNew = new TransactionTemplate(transactionManager);
+    this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+  }
+
+  public static String custody(String contrabandId) { return "custody:" + contrabandId; }
+
+  public long current(String collection) {
+    return PrimaryReads.call(() -> repository.findById(collection).map(CollectionVersion::getVersion).orElse(0L));
+  }
+
+  /** Joins the caller's transaction, so the new stamp becomes visible together with the write it describes. */
+  @Transactional
+  public void bump(String collection) {
+    if (repository.increment(collection) > 0) return;
+    try {
+      requiresNew.executeWithoutResult(s -> repository.insertIfAbsent(collection, System.currentTimeMillis()));
+    } catch (DataIntegrityViolationException e) {
+      // Another writer created the row first; the increment below applies to it.
+    }
+    repository.increment(collection);
+  }
+
+  /**
+   * Bumps {@code collections} in a short transaction of their own once the caller's transaction commits, so
+   * concurrent writers do not queue on one version row for the length of their transactions. A read between the
+   * commit and the bump can see the new rows under the old stamp, never old rows under the new one. Without a
+   * transaction the bump happens straight away.
+   */
+  public void bumpAfterCommit(String... collections) {
+    String[] ordered = collections.clone();
+    Arrays.sort(ordered); // one lock order for every writer
+    if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+      bumpAll(ordered);
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCommit() {
+        try {
+          bumpAll(ordered);
+        } catch (RuntimeException e) {
+          // The write is committed; its readers keep the old stamp until the next write bumps it.
+          log.warn("Could not bump collection versions {} after commit", Arrays.toString(ordered), e);
+        }
+      }
+    });
+  }
+
+  private void bumpAll(String[] collections) {
+    requiresNew.executeWithoutResult(s -> {
+      for (String collection : collections) bump(collection);
+    });
+  }
+
+  public String etag(String collection) {
+    return "\"" + collection + "-" + current(collection) + "\"";
+  }
+}
@@ -0,0 +1,40 @@
+package com.cms.cache;
+
+import com.cms.datasource.PrimaryReads;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+public final class ConditionalGet {
+  /** Clients may reuse a response without asking for this long, then revalidate. */
+  public static final CacheControl SHORT = CacheControl.maxAge(60, TimeUnit.SECONDS).cachePrivate().mustRevalidate();
+  /** Clients must revalidate every time; a 304 still saves the query and the payload. */
+  public static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
+  private ConditionalGet() {}
+
+  /**
+   * Answers 304 when {@code ifNoneMatch} already carries {@code etag}; otherwise runs {@code body}. The body is read
+   * from the primary, like the version behind the tag, so a lagging replica can never be cached under a newer tag.
+   */
+  public static <T> ResponseEntity<T> respond(String ifNoneMatch, String etag, CacheControl cacheControl, Supplier<T> body) {
+    if (matches(ifNoneMatch, etag)) {
+      return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(cacheControl).build();
+    }
+    return ResponseEntity.ok().eTag(etag).cacheControl(cacheControl).body(PrimaryReads.call(body));
+  }
+
+  static boolean matches(String ifNoneMatch, String etag) {
+    if (ifNoneMatch == null || ifNoneMatch.isBlank()) return false;
+    for (String candidate : ifNoneMatch.split(",")) {
+      String tag = candidate.trim();
+      if (tag.equals("*")) return true;
+      if (tag.startsWith("W/")) tag = tag.substring(2);
+      if (tag.equals(etag)) return true;
+    }
+    return false;
+  }
+}
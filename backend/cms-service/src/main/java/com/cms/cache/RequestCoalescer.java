@@ -0,0 +1,114 @@
+package com.cms.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Single-flight execution for heavy reads: concurrent calls with the same endpoint, parameters and authorisation
+ * scope (the caller's roles) share one execution and its result. With {@code app.coalescing.window} above zero the
+ * result is also reused for that long after it completes. Results are shared between threads and must not be
+ * mutated; endpoints whose output depends on the caller's identity must put the user ID in {@code params}. Callers
+ * also put the {@link CollectionVersions} stamp of the data they read in {@code params}, so a call made after a
+ * committed write never joins an execution, or reuses a result, from before it.
+ */
+@Component
+public class RequestCoalescer {
+  private static final int PURGE_THRESHOLD = 1_000;
+
+  private record Key(String endpoint, List<?> params, String scope) {}
+
+  private record Cached(Object value, long expiresAt) {}
+
+  private final ConcurrentHashMap<Key, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+  private final ConcurrentHashMap<Key, Cached> recent = new ConcurrentHashMap<>();
+  private final long windowNanos;
+  private final Counter executed;
+  private final Counter coalesced;
+  private final Counter cached;
+
+  public RequestCoalescer(@Value("${app.coalescing.window:PT0S}") Duration window, MeterRegistry registry) {
+    this.windowNanos = window.toNanos();
+    this.executed = Counter.builder("cms.coalescing.requests").tag("outcome", "executed").register(registry);
+    this.coalesced = Counter.builder("cms.coalescing.requests").tag("outcome", "coalesced").register(registry);
+    this.cached = Counter.builder("cms.coalescing.requests").tag("outcome", "cached").register(registry);
+    Gauge.builder("cms.coalescing.ratio", this, RequestCoalescer::ratio)
+        .description("Share of coalescable reads served without their own execution")
+        .register(registry);
+  }
+
+  @SuppressWarnings("unchecked")
+  public <T> T execute(String endpoint, List<?> params, Supplier<T> loader) {
+    Key key = new Key(endpoint, params, scope());
+    if (windowNanos > 0) {
+      Cached c = recent.get(key);
+      if (c != null) {
+        if (c.expiresAt() - System.nanoTime() > 0) {
+          cached.increment();
+          return (T) c.value();
+        }
+        recent.remove(key, c);
+      }
+    }
+
+    CompletableFuture<Object> mine = new CompletableFuture<>();
+    CompletableFuture<Object> leader = inFlight.putIfAbsent(key, mine);
+    if (leader != null) {
+      coalesced.increment();
+      return (T) await(leader);
+    }
+    try {
+      executed.increment();
+      T value = loader.get();
+      if (windowNanos > 0) remember(key, value);
+      mine.complete(value);
+      return value;
+    } catch (RuntimeException | Error e) {
+      mine.completeExceptionally(e);
+      throw e;
+    } finally {
+      inFlight.remove(key, mine);
+    }
+  }
+
+  private void remember(Key key, Object value) {
+    long now = System.nanoTime();
+    recent.put(key, new Cached(value, now + windowNanos));
+    if (recent.size() > PURGE_THRESHOLD) recent.values().removeIf(c -> c.expiresAt() - now <= 0);
+  }
+
+  private static Object await(CompletableFuture<Object> leader) {
+    try {
+      return leader.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException re) throw re;
+      if (e.getCause() instanceof Error err) throw err;
+      throw e;
+    }
+  }
+
+  private static String scope() {
+    Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+    if (auth == null || !auth.isAuthenticated()) return "anonymous";
+    return auth.getAuthorities().stream().map(GrantedAuthority::getAuthority).sorted().collect(Collectors.joining(","));
+  }
+
+  private double ratio() {
+    double shared = coalesced.count() + cached.count();
+    double total = shared + executed.count();
+    return total == 0 ? 0 : shared / total;
+  }
+}
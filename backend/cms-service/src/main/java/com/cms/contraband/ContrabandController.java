@@ -1,12 +1,22 @@
 package com.cms.contraband;
 
+import com.cms.archive.ArchivedItem;
+import com.cms.archive.ItemArchiveStore;
 import com.cms.audit.AuditLog;
 import com.cms.audit.AuditRepository;
-import com.cms.user.User;
-import com.cms.user.UserRepository;
+import com.cms.cache.CollectionVersions;
+import com.cms.cache.ConditionalGet;
+import com.cms.cache.RequestCoalescer;
+import com.cms.datasource.PrimaryReads;
+import com.cms.sync.ChangeLog;
 import jakarta.validation.Valid;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.Instant;
@@ -15,65 +25,158 @@ import java.util.*;
 @RestController
 @RequestMapping
 public class ContrabandController {
+  public static final int MAX_BATCH_ITEMS = 500;
+
   private final ContrabandRepository contrabandRepository;
   private final CategoryRepository categoryRepository;
   private final AuditRepository auditRepository;
-  private final UserRepository userRepository;
+  private final StatusTransitionService statusTransitionService;
+  private final CollectionVersions collectionVersions;
+  private final ChangeLog changeLog;
+  private final ItemArchiveStore archiveStore;
+  private final RequestCoalescer requestCoalescer;
+  private final DuplicateDetector duplicateDetector;
+  private final ContrabandItemViews itemViews;
 
-  public ContrabandController(ContrabandRepository contrabandRepository, CategoryRepository categoryRepository, AuditRepository auditRepository, UserRepository userRepository) {
+  public ContrabandController(ContrabandRepository contrabandRepository, CategoryRepository categoryRepository, AuditRepository auditRepository, StatusTransitionService statusTransitionService, CollectionVersions collectionVersions, ChangeLog changeLog, ItemArchiveStore archiveStore, RequestCoalescer requestCoalescer, DuplicateDetector duplicateDetector, ContrabandItemViews itemViews) {
     this.contrabandRepository = contrabandRepository;
     this.categoryRepository = categoryRepository;
     this.auditRepository = auditRepository;
-    this.userRepository = userRepository;
+    this.statusTransitionService = statusTransitionService;
+    this.collectionVersions = collectionVersions;
+    this.changeLog = changeLog;
+    this.archiveStore = archiveStore;
+    this.requestCoalescer = requestCoalescer;
+    this.duplicateDetector = duplicateDetector;
+    this.itemViews = itemViews;
   }
 
   @GetMapping("/categories")
-  public List<Category> categories() { return categoryRepository.findAll(); }
-
-  @GetMapping("/contraband-items")
-  public List<Map<String, Object>> list() {
-    List<ContrabandItem> items = contrabandRepository.findAll();
-    Map<String, Category> categoryById = new HashMap<>();
-    Map<String, User> userById = new HashMap<>();
-
-    List<Map<String, Object>> response = new ArrayList<>();
-    for (ContrabandItem i : items) {
-      Map<String, Object> m = new LinkedHashMap<>();
-      m.put("id", i.getId());
-      m.put("seizure_number", i.getSeizureNumber());
-      m.put("item_name", i.getItemName());
-      m.put("description", i.getDescription());
-      m.put("quantity", i.getQuantity());
-      m.put("unit", i.getUnit());
-      m.put("estimated_value", i.getEstimatedValue());
-      m.put("status", i.getStatus());
-      m.put("seizure_date", i.getSeizureDate());
-      m.put("seizure_location", i.getSeizureLocation());
-      m.put("storage_location", i.getStorageLocation());
-      m.put("seized_by", i.getSeizedBy());
-      m.put("barcode", i.getBarcode());
-
-      if (i.getCategoryId() != null) {
-        Category c = categoryById.computeIfAbsent(i.getCategoryId(), id -> categoryRepository.findById(id).orElse(null));
-        if (c != null) {
-          m.put("category", Map.of("name", c.getName(), "risk_level", c.getRiskLevel()));
-        }
-      }
-      if (i.getSeizedBy() != null) {
-        User u = userById.computeIfAbsent(i.getSeizedBy(), id -> userRepository.findById(id).orElse(null));
-        if (u != null) {
-          m.put("seized_by_user", Map.of("full_name", u.getFullName(), "badge_number", u.getBadgeNumber()));
-        }
-      }
-      response.add(m);
+  public ResponseEntity<List<Category>> categories(@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+    String etag = collectionVersions.etag(CollectionVersions.CATEGORIES);
+    return ConditionalGet.respond(ifNoneMatch, etag, ConditionalGet.SHORT, categoryRepository::findAll);
+  }
+
+  @GetMapping(value = "/contraband-items", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE})
+  public List<Map<String, Object>> list(@RequestParam(value = "id", required = false) String id,
+                                        @RequestParam(value = "seizure_number", required = false) String seizureNumber,
+                                        @RequestParam(value = "case_number", required = false) String caseNumber) {
+    long version = collectionVersions.current(CollectionVersions.ITEMS);
+    // The key carries the primary's version, so the body shared under it must not come from a lagging replica.
+    return requestCoalescer.execute("contraband-items.list", Arrays.asList(version, id, seizureNumber, caseNumber),
+        () -> PrimaryReads.call(() -> loadItems(id, seizureNumber, caseNumber)));
+  }
+
+  private List<Map<String, Object>> loadItems(String id, String seizureNumber, String caseNumber) {
+    if (id == null && seizureNumber == null && caseNumber == null) {
+      return toResponse(contrabandRepository.findAll(), false);
     }
+    List<ContrabandItem> hot;
+    List<ContrabandItem> archived;
+    if (id != null) {
+      hot = contrabandRepository.findById(id).map(List::of).orElse(List.of());
+      archived = hot.isEmpty() ? archiveStore.findById(id).map(a -> List.of(a.item())).orElse(List.of()) : List.of();
+    } else if (seizureNumber != null) {
+      hot = contrabandRepository.findBySeizureNumber(seizureNumber);
+      archived = hot.isEmpty() ? archiveStore.findBySeizureNumber(seizureNumber).map(a -> List.of(a.item())).orElse(List.of()) : List.of();
+    } else {
+      hot = contrabandRepository.findByCaseNumber(caseNumber);
+      Set<String> hotIds = new HashSet<>();
+      hot.forEach(i -> hotIds.add(i.getId()));
+      archived = archiveStore.findByCaseNumber(caseNumber).stream().map(ArchivedItem::item)
+          .filter(i -> !hotIds.contains(i.getId())).toList();
+    }
+    List<Map<String, Object>> response = new ArrayList<>(toResponse(hot, false));
+    response.addAll(toResponse(archived, true));
     return response;
   }
 
+  @GetMapping(value = "/contraband-items/{id}", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE})
+  public ResponseEntity<Map<String, Object>> get(@PathVariable String id) {
+    Optional<ContrabandItem> hot = contrabandRepository.findById(id);
+    if (hot.isPresent()) return ResponseEntity.ok(toResponse(List.of(hot.get()), false).get(0));
+    return archiveStore.findById(id)
+        .map(a -> ResponseEntity.ok(toResponse(List.of(a.item()), true).get(0)))
+        .orElse(ResponseEntity.notFound().build());
+  }
+
+  private List<Map<String, Object>> toResponse(List<ContrabandItem> items, boolean archived) {
+    return itemViews.of(items, archived);
+  }
+
   @PostMapping("/contraband-items")
+  @Transactional
   public ResponseEntity<?> create(@Valid @RequestBody Map<String, Object> body, Authentication auth) {
+    ContrabandItem item;
+    try {
+      item = toItem(body, generateSeizureNumber(), auth);
+    } catch (IllegalArgumentException e) {
+      return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+    }
+    DuplicateDetector.Result duplicates = duplicateDetector.detect(item, List.of());
+    contrabandRepository.save(item);
+    changeLog.upserted(ChangeLog.ITEMS, item.getId());
+    auditRepository.save(createAudit(item, body));
+    collectionVersions.bumpAfterCommit(CollectionVersions.ITEMS, CollectionVersions.AUDIT_LOGS);
+
+    Map<String, Object> response = new LinkedHashMap<>();
+    response.put("id", item.getId());
+    putDuplicates(response, duplicates);
+    return ResponseEntity.ok(response);
+  }
+
+  /**
+   * Records several seizures at once. Each item is checked against stored seizures, read on the primary inside this
+   * transaction, and against every other item in the request, so two matching items report each other. Everything
+   * is validated before anything is saved.
+   */
+  @PostMapping("/contraband-items/batch")
+  @Transactional
+  public ResponseEntity<?> createBatch(@RequestBody Map<String, Object> body, Authentication auth) {
+    if (!(body.get("items") instanceof List<?> raw) || raw.isEmpty()) {
+      return ResponseEntity.badRequest().body(Map.of("error", "items must be a non-empty list"));
+    }
+    if (raw.size() > MAX_BATCH_ITEMS) {
+      return ResponseEntity.badRequest().body(Map.of("error", "At most " + MAX_BATCH_ITEMS + " items per request"));
+    }
+    List<ContrabandItem> items = new ArrayList<>();
+    List<Map<String, Object>> bodies = new ArrayList<>();
+    String seizureNumberBase = generateSeizureNumber();
+    try {
+      for (Object o : raw) {
+        if (!(o instanceof Map<?, ?> m)) throw new IllegalArgumentException("Each item must be an object");
+        @SuppressWarnings("unchecked")
+        Map<String, Object> itemBody = (Map<String, Object>) m;
+        items.add(toItem(itemBody, seizureNumberBase + "-" + (items.size() + 1), auth));
+        bodies.add(itemBody);
+      }
+    } catch (IllegalArgumentException e) {
+      return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+    }
+
+    List<Map<String, Object>> created = new ArrayList<>();
+    for (int i = 0; i < items.size(); i++) {
+      ContrabandItem item = items.get(i);
+      Map<String, Object> entry = new LinkedHashMap<>();
+      entry.put("id", item.getId());
+      entry.put("seizure_number", item.getSeizureNumber());
+      putDuplicates(entry, duplicateDetector.detect(item, items));
+      created.add(entry);
+    }
+    contrabandRepository.saveAll(items);
+    changeLog.upserted(ChangeLog.ITEMS, items.stream().map(ContrabandItem::getId).toList());
+    List<AuditLog> audits = new ArrayList<>();
+    for (int i = 0; i < items.size(); i++) audits.add(createAudit(items.get(i), bodies.get(i)));
+    auditRepository.saveAll(audits);
+    collectionVersions.bumpAfterCommit(CollectionVersions.ITEMS, CollectionVersions.AUDIT_LOGS);
+
+    return ResponseEntity.ok(Map.of("created", created));
+  }
+
+  private ContrabandItem toItem(Map<String, Object> body, String defaultSeizureNumber, Authentication auth) {
+    ContrabandStatus initial = ContrabandStatus.fromValue((String) body.getOrDefault("status", ContrabandStatus.SEIZED.value()));
     ContrabandItem item = new ContrabandItem();
-    item.setSeizureNumber((String) body.getOrDefault("seizure_number", generateSeizureNumber()));
+    item.setSeizureNumber((String) body.getOrDefault("seizure_number", defaultSeizureNumber));
     item.setItemName((String) body.get("item_name"));
     item.setDescription((String) body.get("description"));
     item.setQuantity(asDouble(body.get("quantity")));
@@ -86,31 +189,65 @@ public class ContrabandController {
     item.setCaseNumber((String) body.get("case_number"));
     item.setBarcode((String) body.get("barcode"));
     item.setStorageLocation((String) body.get("storage_location"));
-    item.setSeizedBy((String) body.getOrDefault("seized_by", auth != null ? (String) auth.getPrincipal() : null));
-    item.setStatus((String) body.getOrDefault("status", "seized"));
+    item.setSeizedBy((String) body.getOrDefault("seized_by", principal(auth)));
+    item.setStatus(initial.value());
     item.setCategoryId((String) body.get("category_id"));
     item.setSeizureDate(Instant.now());
-    contrabandRepository.save(item);
+    duplicateDetector.assignBucket(item);
+    return item;
+  }
 
+  private static AuditLog createAudit(ContrabandItem item, Map<String, Object> body) {
     AuditLog log = new AuditLog();
     log.setUserId(item.getSeizedBy());
     log.setAction("CREATE_SEIZURE");
     log.setTableName("contraband_items");
     log.setRecordId(item.getId());
     log.setNewValuesJson(body.toString());
-    auditRepository.save(log);
+    return log;
+  }
 
-    return ResponseEntity.ok(Map.of("id", item.getId()));
+  private static void putDuplicates(Map<String, Object> response, DuplicateDetector.Result duplicates) {
+    response.put("possible_duplicates", duplicates.matches().stream().map(DuplicateDetector.Match::toMap).toList());
+    response.put("duplicate_check_complete", duplicates.complete());
   }
 
   @PutMapping("/contraband-items/{id}/status")
-  public ResponseEntity<?> updateStatus(@PathVariable String id, @RequestBody Map<String, Object> body) {
-    return contrabandRepository.findById(id).map(item -> {
-      item.setStatus((String) body.get("status"));
-      item.setUpdatedAt(Instant.now());
-      contrabandRepository.save(item);
-      return ResponseEntity.ok().build();
-    }).orElse(ResponseEntity.notFound().build());
+  public ResponseEntity<?> updateStatus(@PathVariable String id, @RequestBody Map<String, Object> body, Authentication auth) {
+    try {
+      ContrabandStatus target = ContrabandStatus.fromValue((String) body.get("status"));
+      Long expectedVersion = body.get("version") != null ? Long.valueOf(body.get("version").toString()) : null;
+      return statusTransitionService.transition(id, target, expectedVersion, principal(auth))
+          .<ResponseEntity<?>>map(item -> ResponseEntity.ok(Map.of("id", item.getId(), "status", item.getStatus(), "version", item.getVersion())))
+          .orElse(ResponseEntity.notFound().build());
+    } catch (IllegalArgumentException e) {
+      return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+    } catch (IllegalStateException e) {
+      return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", e.getMessage()));
+    } catch (OptimisticLockingFailureException e) {
+      return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", "Item was modified concurrently; reload and retry"));
+    }
+  }
+
+  @PostMapping("/contraband-items/status-transitions")
+  public ResponseEntity<?> bulkUpdateStatus(@RequestBody Map<String, Object> body, Authentication auth) {
+    try {
+      ContrabandStatus target = ContrabandStatus.fromValue((String) body.get("status"));
+      List<String> ids = body.get("item_ids") instanceof List<?> l ? l.stream().map(String::valueOf).toList() : null;
+      var result = statusTransitionService.transitionAll(ids, (String) body.get("case_number"), target, principal(auth));
+      return ResponseEntity.ok(Map.of(
+          "status", result.status(),
+          "requested", result.requested(),
+          "updated", result.updated(),
+          "skipped", result.skipped()
+      ));
+    } catch (IllegalArgumentException e) {
+      return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+    }
+  }
+
+  private static String principal(Authentication auth) {
+    return auth != null ? (String) auth.getPrincipal() : null;
   }
 
   private static String generateSeizureNumber() {
@@ -32,6 +32,9 @@ public class ContrabandItem {
   private Instant createdAt = Instant.now();
   private Instant updatedAt = Instant.now();
   private String categoryId;
+  private String dedupBucket; // see DuplicateDetector
+  @Version
+  private Long version;
 
   // Getters/setters
   public String getId() { return id; }
@@ -78,4 +81,8 @@ public class ContrabandItem {
   public void setUpdatedAt(Instant updatedAt) { this.updatedAt = updatedAt; }
   public String getCategoryId() { return categoryId; }
   public void setCategoryId(String categoryId) { this.categoryId = categoryId; }
+  public String getDedupBucket() { return dedupBucket; }
+  public void setDedupBucket(String dedupBucket) { this.dedupBucket = dedupBucket; }
+  public Long getVersion() { return version; }
+  public void setVersion(Long version) { this.version = version; }
 }
\ No newline at end of file
@@ -0,0 +1,68 @@
+package com.cms.contraband;
+
+import com.cms.user.User;
+import com.cms.user.UserRepository;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+/**
+ * The snake_case item payload served by the item endpoints and {@code /sync}, with the category and seizing
+ * officer filled in. Storage and dedup columns stay internal.
+ */
+@Component
+public class ContrabandItemViews {
+  private final CategoryRepository categoryRepository;
+  private final UserRepository userRepository;
+
+  public ContrabandItemViews(CategoryRepository categoryRepository, UserRepository userRepository) {
+    this.categoryRepository = categoryRepository;
+    this.userRepository = userRepository;
+  }
+
+  public List<Map<String, Object>> of(List<ContrabandItem> items, boolean archived) {
+    Map<String, Category> categoryById = new HashMap<>();
+    Map<String, User> userById = new HashMap<>();
+
+    List<Map<String, Object>> response = new ArrayList<>();
+    for (ContrabandItem i : items) {
+      Map<String, Object> m = new LinkedHashMap<>();
+      m.put("id", i.getId());
+      m.put("seizure_number", i.getSeizureNumber());
+      m.put("item_name", i.getItemName());
+      m.put("description", i.getDescription());
+      m.put("quantity", i.getQuantity());
+      m.put("unit", i.getUnit());
+      m.put("estimated_value", i.getEstimatedValue());
+      m.put("status", i.getStatus());
+      m.put("seizure_date", i.getSeizureDate());
+      m.put("seizure_location", i.getSeizureLocation());
+      m.put("storage_location", i.getStorageLocation());
+      m.put("seized_by", i.getSeizedBy());
+      m.put("barcode", i.getBarcode());
+      m.put("version", i.getVersion());
+      m.put("archived", archived);
+
+      if (i.getCategoryId() != null) {
+        Category c = categoryById.computeIfAbsent(i.getCategoryId(), id -> categoryRepository.findById(id).orElse(null));
+        if (c != null) {
+          Map<String, Object> category = new LinkedHashMap<>();
+          category.put("name", c.getName());
+          category.put("risk_level", c.getRiskLevel());
+          m.put("category", category);
+        }
+      }
+      if (i.getSeizedBy() != null) {
+        User u = userById.computeIfAbsent(i.getSeizedBy(), id -> userRepository.findById(id).orElse(null));
+        if (u != null) {
+          Map<String, Object> officer = new LinkedHashMap<>();
+          officer.put("full_name", u.getFullName());
+          officer.put("badge_number", u.getBadgeNumber());
+          m.put("seized_by_user", officer);
+        }
+      }
+      response.add(m);
+    }
+    return response;
+  }
+}
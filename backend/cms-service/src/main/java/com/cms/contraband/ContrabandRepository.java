@@ -1,6 +1,42 @@
 package com.cms.contraband;
 
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 
 public interface ContrabandRepository extends JpaRepository<ContrabandItem, String> {
-}
\ No newline at end of file
+  List<ContrabandItem> findBySeizureNumber(String seizureNumber);
+
+  List<ContrabandItem> findByCaseNumber(String caseNumber);
+
+  List<ContrabandItem> findByStatusInAndUpdatedAtBefore(Collection<String> statuses, Instant cutoff, Pageable pageable);
+
+  @Modifying
+  @Query("delete from ContrabandItem c where c.id in :ids")
+  int deleteAllByIdIn(@Param("ids") Collection<String> ids);
+
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @Query("select c from ContrabandItem c where c.id in :ids and c.status in :statuses")
+  List<ContrabandItem> lockByIdInAndStatusIn(@Param("ids") Collection<String> ids, @Param("statuses") Collection<String> statuses);
+
+  @Query("select c.id from ContrabandItem c where c.caseNumber = :caseNumber order by c.id")
+  List<String> findIdsByCaseNumber(@Param("caseNumber") String caseNumber);
+
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @Query("select c from ContrabandItem c where c.caseNumber = :caseNumber and c.status in :statuses")
+  List<ContrabandItem> lockByCaseNumberAndStatusIn(@Param("caseNumber") String caseNumber, @Param("statuses") Collection<String> statuses);
+
+  @Modifying(flushAutomatically = true, clearAutomatically = true)
+  @Query("update ContrabandItem c set c.status = :to, c.updatedAt = :now, c.version = c.version + 1 "
+      + "where c.id in :ids and c.status in :statuses")
+  int transitionStatus(@Param("ids") Collection<String> ids, @Param("statuses") Collection<String> statuses,
+                       @Param("to") String to, @Param("now") Instant now);
+}
@@ -0,0 +1,52 @@
+package com.cms.contraband;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Seizure lifecycle. Each status lists the statuses it may move to; destroyed and released are terminal.
+ */
+public enum ContrabandStatus {
+  SEIZED("seized"),
+  IN_CUSTODY("in_custody"),
+  UNDER_INVESTIGATION("under_investigation"),
+  PENDING_DESTRUCTION("pending_destruction"),
+  DESTROYED("destroyed"),
+  RELEASED("released");
+
+  private final String value;
+
+  ContrabandStatus(String value) { this.value = value; }
+
+  public String value() { return value; }
+
+  public Set<ContrabandStatus> next() {
+    return switch (this) {
+      case SEIZED -> EnumSet.of(IN_CUSTODY, UNDER_INVESTIGATION, RELEASED);
+      case IN_CUSTODY -> EnumSet.of(UNDER_INVESTIGATION, PENDING_DESTRUCTION, RELEASED);
+      case UNDER_INVESTIGATION -> EnumSet.of(IN_CUSTODY, PENDING_DESTRUCTION, RELEASED);
+      case PENDING_DESTRUCTION -> EnumSet.of(IN_CUSTODY, DESTROYED);
+      case DESTROYED, RELEASED -> EnumSet.noneOf(ContrabandStatus.class);
+    };
+  }
+
+  public boolean canMoveTo(ContrabandStatus target) { return next().contains(target); }
+
+  public boolean isClosed() { return this == DESTROYED || this == RELEASED; }
+
+  /** Status values from which {@code target} is reachable in one step. */
+  public static List<String> sourcesOf(ContrabandStatus target) {
+    return Arrays.stream(values()).filter(s -> s.canMoveTo(target)).map(ContrabandStatus::value).toList();
+  }
+
+  public static ContrabandStatus fromValue(String value) {
+    if (value != null) {
+      for (ContrabandStatus s : values()) {
+        if (s.value.equalsIgnoreCase(value.trim())) return s;
+      }
+    }
+    throw new IllegalArgumentException("Unknown status: " + value);
+  }
+}
@@ -0,0 +1,261 @@
+package com.cms.contraband;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.QueryTimeoutException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.function.IntFunction;
+
+/**
+ * Flags likely duplicates of a seizure that is about to be recorded. Candidates come from three indexed lookups:
+ * same barcode, same case number, and every grid cell that can hold a point within {@code max-distance-meters}, in
+ * the current and adjacent time buckets ({@code dedup_bucket}). The cell span is worked out per item, since a
+ * degree of longitude shrinks with latitude. A candidate with the same barcode is always reported. Otherwise it must
+ * have a similar name (Jaro-Winkler over normalised, sorted tokens) and either share the case number or lie within
+ * {@code max-distance-meters} and one time bucket. Work stops at {@code app.duplicates.budget-ms}, and the result
+ * is then marked incomplete instead of holding up the create. Each lookup also carries the remaining budget as its
+ * query timeout and runs under a savepoint, so a slow one is cancelled without aborting the caller's transaction.
+ * JDBC timeouts are whole seconds, so that cancellation only bounds a stuck query; the budget itself is enforced
+ * between steps.
+ */
+@Component
+public class DuplicateDetector {
+  private static final int CANDIDATES_PER_LOOKUP = 100;
+  private static final double METERS_PER_DEGREE = 111_320;
+  /** Widest cell span searched; only reached within a few kilometres of the poles. */
+  private static final int MAX_CELL_SPAN = 25;
+  private static final String QUERY_TIMEOUT_HINT = "jakarta.persistence.query.timeout";
+  private static final int MIN_QUERY_TIMEOUT_MS = 1000;
+
+  @PersistenceContext
+  private EntityManager entityManager;
+
+  private final TransactionTemplate savepoint;
+  private final long budgetNanos;
+  private final double cellDegrees;
+  private final long timeBucketSeconds;
+  private final double maxDistanceMeters;
+  private final double nameThreshold;
+
+  public DuplicateDetector(PlatformTransactionManager transactionManager,
+                           @Value("${app.duplicates.budget-ms:50}") long budgetMs,
+                           @Value("${app.duplicates.cell-degrees:0.002}") double cellDegrees,
+                           @Value("${app.duplicates.time-bucket:PT30M}") Duration timeBucket,
+                           @Value("${app.duplicates.max-distance-meters:250}") double maxDistanceMeters,
+                           @Value("${app.duplicates.name-threshold:0.85}") double nameThreshold) {
+    this.savepoint = new TransactionTemplate(transactionManager);
+    this.savepoint.setPropagationBehavior(TransactionDefinition.PROPAGATION_NESTED);
+    this.budgetNanos = Duration.ofMillis(budgetMs).toNanos();
+    this.cellDegrees = cellDegrees;
+    this.timeBucketSeconds = Math.max(1, timeBucket.toSeconds());
+    this.maxDistanceMeters = maxDistanceMeters;
+    this.nameThreshold = nameThreshold;
+  }
+
+  public record Match(String id, String seizureNumber, String itemName, double score, List<String> reasons) {
+    public Map<String, Object> toMap() {
+      Map<String, Object> m = new LinkedHashMap<>();
+      m.put("id", id);
+      m.put("seizure_number", seizureNumber);
+      m.put("item_name", itemName);
+      m.put("score", score);
+      m.put("reasons", reasons);
+      return m;
+    }
+  }
+
+  public record Result(List<Match> matches, boolean complete) {}
+
+  /** Sets the item's bucket; call before saving so later seizures can find it. */
+  public void assignBucket(ContrabandItem item) {
+    item.setDedupBucket(bucketOf(item));
+  }
+
+  /**
+   * Compares {@code item} with stored seizures and with {@code pending}, the other items of the same batch, which
+   * are not saved yet. {@code pending} may contain {@code item} itself.
+   */
+  public Result detect(ContrabandItem item, Collection<ContrabandItem> pending) {
+    long deadline = System.nanoTime() + budgetNanos;
+    Map<String, ContrabandItem> candidates = new LinkedHashMap<>();
+    pending.forEach(p -> candidates.put(p.getId(), p));
+    boolean complete = true;
+
+    List<IntFunction<List<ContrabandItem>>> lookups = new ArrayList<>();
+    if (notBlank(item.getBarcode())) {
+      lookups.add(timeoutMs -> recentWhere("c.barcode = :value", item.getBarcode(), timeoutMs));
+    }
+    if (notBlank(item.getCaseNumber())) {
+      lookups.add(timeoutMs -> recentWhere("c.caseNumber = :value", item.getCaseNumber(), timeoutMs));
+    }
+    List<String> neighbourhood = neighbourhoodOf(item);
+    if (!neighbourhood.isEmpty()) {
+      lookups.add(timeoutMs -> recentWhere("c.dedupBucket in :value", neighbourhood, timeoutMs));
+    }
+    for (IntFunction<List<ContrabandItem>> lookup : lookups) {
+      long remaining = deadline - System.nanoTime();
+      if (remaining < 0) { complete = false; break; }
+      int timeoutMs = (int) Math.max(MIN_QUERY_TIMEOUT_MS, Duration.ofNanos(remaining).toMillis());
+      try {
+        addAll(candidates, savepoint.execute(s -> lookup.apply(timeoutMs)));
+      } catch (QueryTimeoutException e) {
+        complete = false;
+        break;
+      }
+    }
+
+    String name = normalise(item.getItemName());
+    List<Match> matches = new ArrayList<>();
+    for (ContrabandItem c : candidates.values()) {
+      if (System.nanoTime() - deadline > 0) { complete = false; break; }
+      if (c.getId().equals(item.getId())) continue;
+      Match m = score(item, name, c);
+      if (m != null) matches.add(m);
+    }
+    matches.sort(Comparator.comparingDouble(Match::score).reversed());
+    return new Result(matches, complete);
+  }
+
+  private Match score(ContrabandItem item, String name, ContrabandItem c) {
+    List<String> reasons = new ArrayList<>();
+    boolean sameBarcode = notBlank(item.getBarcode()) && item.getBarcode().equals(c.getBarcode());
+    if (sameBarcode) reasons.add("barcode");
+
+    double similarity = name.isEmpty() ? 0 : jaroWinkler(name, normalise(c.getItemName()));
+    boolean similarName = similarity >= nameThreshold;
+    boolean sameCase = notBlank(item.getCaseNumber()) && item.getCaseNumber().equals(c.getCaseNumber());
+    boolean nearby = isNearby(item, c);
+    if (similarName) reasons.add("item_name");
+    if (sameCase) reasons.add("case_number");
+    if (nearby) reasons.add("location_time");
+
+    if (!sameBarcode && !(similarName && (sameCase || nearby))) return null;
+    double score = sameBarcode ? Math.max(0.9, similarity) : similarity;
+    return new Match(c.getId(), c.getSeizureNumber(), c.getItemName(), Math.round(score * 1000) / 1000.0, reasons);
+  }
+
+  private boolean isNearby(ContrabandItem a, ContrabandItem b) {
+    if (a.getGpsLatitude() == null || a.getGpsLongitude() == null
+        || b.getGpsLatitude() == null || b.getGpsLongitude() == null) return false;
+    if (a.getSeizureDate() != null && b.getSeizureDate() != null
+        && Math.abs(Duration.between(a.getSeizureDate(), b.getSeizureDate()).toSeconds()) > timeBucketSeconds) return false;
+    return distanceMeters(a.getGpsLatitude(), a.getGpsLongitude(), b.getGpsLatitude(), b.getGpsLongitude()) <= maxDistanceMeters;
+  }
+
+  private String bucketOf(ContrabandItem item) {
+    if (item.getGpsLatitude() == null || item.getGpsLongitude() == null || item.getSeizureDate() == null) return null;
+    return bucket(cell(item.getGpsLatitude()), cell(item.getGpsLongitude()), slot(item.getSeizureDate()));
+  }
+
+  private List<String> neighbourhoodOf(ContrabandItem item) {
+    if (item.getGpsLatitude() == null || item.getGpsLongitude() == null || item.getSeizureDate() == null) return List.of();
+    long lat = cell(item.getGpsLatitude());
+    long lon = cell(item.getGpsLongitude());
+    long slot = slot(item.getSeizureDate());
+    double cellMeters = cellDegrees * METERS_PER_DEGREE;
+    int latSpan = span(maxDistanceMeters / cellMeters);
+    // Widen by the radius in latitude so the span also covers the narrowest parallel the circle reaches.
+    double widestLat = Math.min(90, Math.abs(item.getGpsLatitude()) + maxDistanceMeters / METERS_PER_DEGREE);
+    int lonSpan = span(maxDistanceMeters / (cellMeters * Math.cos(Math.toRadians(widestLat))));
+    List<String> keys = new ArrayList<>((2 * latSpan + 1) * (2 * lonSpan + 1) * 3);
+    for (long dLat = -latSpan; dLat <= latSpan; dLat++) {
+      for (long dLon = -lonSpan; dLon <= lonSpan; dLon++) {
+        for (long dSlot = -1; dSlot <= 1; dSlot++) {
+          keys.add(bucket(lat + dLat, lon + dLon, slot + dSlot));
+        }
+      }
+    }
+    return keys;
+  }
+
+  private static int span(double cells) {
+    if (!(cells < MAX_CELL_SPAN)) return MAX_CELL_SPAN;
+    return Math.max(1, (int) Math.ceil(cells));
+  }
+
+  private long cell(double degrees) {
+    return (long) Math.floor(degrees / cellDegrees);
+  }
+
+  private long slot(Instant at) {
+    return Math.floorDiv(at.getEpochSecond(), timeBucketSeconds);
+  }
+
+  private static String bucket(long lat, long lon, long slot) {
+    return lat + ":" + lon + ":" + slot;
+  }
+
+  private List<ContrabandItem> recentWhere(String condition, Object value, int timeoutMs) {
+    return entityManager.createQuery("select c from ContrabandItem c where " + condition + " order by c.seizureDate desc",
+            ContrabandItem.class)
+        .setParameter("value", value)
+        .setMaxResults(CANDIDATES_PER_LOOKUP)
+        .setHint(QUERY_TIMEOUT_HINT, timeoutMs)
+        .getResultList();
+  }
+
+  private static void addAll(Map<String, ContrabandItem> candidates, List<ContrabandItem> found) {
+    found.forEach(c -> candidates.putIfAbsent(c.getId(), c));
+  }
+
+  private static boolean notBlank(String s) {
+    return s != null && !s.isBlank();
+  }
+
+  /** Lower-cases, drops punctuation and sorts tokens so word order and spacing do not matter. */
+  static String normalise(String s) {
+    if (s == null) return "";
+    String[] tokens = s.toLowerCase(Locale.ROOT).replaceAll("[^\\p{L}\\p{N}]+", " ").trim().split(" ");
+    Arrays.sort(tokens);
+    return String.join(" ", tokens).trim();
+  }
+
+  static double jaroWinkler(String a, String b) {
+    if (a.equals(b)) return a.isEmpty() ? 0 : 1;
+    if (a.isEmpty() || b.isEmpty()) return 0;
+    int window = Math.max(0, Math.max(a.length(), b.length()) / 2 - 1);
+    boolean[] aMatched = new boolean[a.length()];
+    boolean[] bMatched = new boolean[b.length()];
+    int matches = 0;
+    for (int i = 0; i < a.length(); i++) {
+      int from = Math.max(0, i - window);
+      int to = Math.min(b.length() - 1, i + window);
+      for (int j = from; j <= to; j++) {
+        if (!bMatched[j] && a.charAt(i) == b.charAt(j)) {
+          aMatched[i] = bMatched[j] = true;
+          matches++;
+          break;
+        }
+      }
+    }
+    if (matches == 0) return 0;
+    int transpositions = 0;
+    for (int i = 0, j = 0; i < a.length(); i++) {
+      if (!aMatched[i]) continue;
+      while (!bMatched[j]) j++;
+      if (a.charAt(i) != b.charAt(j)) transpositions++;
+      j++;
+    }
+    double m = matches;
+    double jaro = (m / a.length() + m / b.length() + (m - transpositions / 2.0) / m) / 3;
+    int prefix = 0;
+    while (prefix < Math.min(4, Math.min(a.length(), b.length())) && a.charAt(prefix) == b.charAt(prefix)) prefix++;
+    return jaro + prefix * 0.1 * (1 - jaro);
+  }
+
+  private static double distanceMeters(double lat1, double lon1, double lat2, double lon2) {
+    double dLat = Math.toRadians(lat2 - lat1);
+    double dLon = Math.toRadians(lon2 - lon1);
+    double h = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+        + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+    return 2 * 6_371_000 * Math.asin(Math.sqrt(h));
+  }
+}
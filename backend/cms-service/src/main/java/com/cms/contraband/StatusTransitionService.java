@@ -0,0 +1,102 @@
+package com.cms.contraband;
+
+import com.cms.audit.AuditLog;
+import com.cms.cache.CollectionVersions;
+import com.cms.sync.ChangeLog;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.*;
+
+/**
+ * Applies lifecycle-checked status changes. Single items go through the entity's optimistic version;
+ * bulk requests lock the eligible rows, apply one conditional UPDATE and write the audit rows as one JDBC batch.
+ */
+@Service
+public class StatusTransitionService {
+  public static final int MAX_BULK_ITEMS = 1000;
+
+  private final ContrabandRepository contrabandRepository;
+  private final ChangeLog changeLog;
+  private final CollectionVersions collectionVersions;
+
+  @PersistenceContext
+  private EntityManager entityManager;
+
+  public StatusTransitionService(ContrabandRepository contrabandRepository, ChangeLog changeLog,
+                                 CollectionVersions collectionVersions) {
+    this.contrabandRepository = contrabandRepository;
+    this.changeLog = changeLog;
+    this.collectionVersions = collectionVersions;
+  }
+
+  public record BulkResult(String status, int requested, List<String> updated, List<String> skipped) {}
+
+  @Transactional
+  public Optional<ContrabandItem> transition(String id, ContrabandStatus target, Long expectedVersion, String userId) {
+    Optional<ContrabandItem> found = contrabandRepository.findById(id);
+    if (found.isEmpty()) return found;
+    ContrabandItem item = found.get();
+    if (expectedVersion != null && !expectedVersion.equals(item.getVersion())) {
+      throw new ObjectOptimisticLockingFailureException(ContrabandItem.class, id);
+    }
+    ContrabandStatus current = ContrabandStatus.fromValue(item.getStatus());
+    if (!current.canMoveTo(target)) {
+      throw new IllegalStateException("Cannot move from " + current.value() + " to " + target.value());
+    }
+    item.setStatus(target.value());
+    item.setUpdatedAt(Instant.now());
+    contrabandRepository.saveAndFlush(item);
+    entityManager.persist(statusAudit(userId, item.getId(), current.value(), target.value()));
+    changeLog.upserted(ChangeLog.ITEMS, item.getId());
+    collectionVersions.bumpAfterCommit(CollectionVersions.ITEMS, CollectionVersions.AUDIT_LOGS);
+    return found;
+  }
+
+  @Transactional
+  public BulkResult transitionAll(Collection<String> ids, String caseNumber, ContrabandStatus target, String userId) {
+    List<String> sources = ContrabandStatus.sourcesOf(target);
+    List<ContrabandItem> eligible;
+    Set<String> requested;
+    if (ids != null && !ids.isEmpty()) {
+      requested = new LinkedHashSet<>(ids);
+      if (requested.size() > MAX_BULK_ITEMS) {
+        throw new IllegalArgumentException("At most " + MAX_BULK_ITEMS + " items per request");
+      }
+      eligible = sources.isEmpty() ? List.of() : contrabandRepository.lockByIdInAndStatusIn(requested, sources);
+    } else if (caseNumber != null && !caseNumber.isBlank()) {
+      // Every item of the case counts as requested, so the ones in the wrong status are reported as skipped.
+      requested = new LinkedHashSet<>(contrabandRepository.findIdsByCaseNumber(caseNumber));
+      eligible = sources.isEmpty() ? List.of() : contrabandRepository.lockByCaseNumberAndStatusIn(caseNumber, sources);
+      eligible.forEach(i -> requested.add(i.getId()));
+    } else {
+      throw new IllegalArgumentException("Either item_ids or case_number is required");
+    }
+
+    Map<String, String> previous = new LinkedHashMap<>();
+    eligible.forEach(i -> previous.put(i.getId(), i.getStatus()));
+    if (!previous.isEmpty()) {
+      contrabandRepository.transitionStatus(previous.keySet(), sources, target.value(), Instant.now());
+      previous.forEach((id, from) -> entityManager.persist(statusAudit(userId, id, from, target.value())));
+      changeLog.upserted(ChangeLog.ITEMS, previous.keySet());
+      collectionVersions.bumpAfterCommit(CollectionVersions.ITEMS, CollectionVersions.AUDIT_LOGS);
+    }
+
+    List<String> skipped = requested.stream().filter(id -> !previous.containsKey(id)).toList();
+    return new BulkResult(target.value(), requested.size(), List.copyOf(previous.keySet()), skipped);
+  }
+
+  private static AuditLog statusAudit(String userId, String itemId, String from, String to) {
+    AuditLog log = new AuditLog();
+    log.setUserId(userId);
+    log.setAction("UPDATE_STATUS");
+    log.setTableName("contraband_items");
+    log.setRecordId(itemId);
+    log.setNewValuesJson("{\"from\":\"" + from + "\",\"status\":\"" + to + "\"}");
+    return log;
+  }
+}
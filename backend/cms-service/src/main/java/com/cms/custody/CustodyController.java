@@ -1,9 +1,15 @@
 package com.cms.custody;
 
-import com.cms.user.User;
-import com.cms.user.UserRepository;
+import com.cms.archive.ArchivedItem;
+import com.cms.archive.ItemArchiveStore;
+import com.cms.cache.CollectionVersions;
+import com.cms.cache.ConditionalGet;
+import com.cms.sync.ChangeLog;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.*;
@@ -12,42 +18,36 @@ import java.util.*;
 @RequestMapping("/custody")
 public class CustodyController {
   private final CustodyRepository custodyRepository;
-  private final UserRepository userRepository;
+  private final CollectionVersions collectionVersions;
+  private final ChangeLog changeLog;
+  private final ItemArchiveStore archiveStore;
+  private final CustodyViews custodyViews;
 
-  public CustodyController(CustodyRepository custodyRepository, UserRepository userRepository) {
+  public CustodyController(CustodyRepository custodyRepository, CollectionVersions collectionVersions, ChangeLog changeLog, ItemArchiveStore archiveStore, CustodyViews custodyViews) {
     this.custodyRepository = custodyRepository;
-    this.userRepository = userRepository;
+    this.collectionVersions = collectionVersions;
+    this.changeLog = changeLog;
+    this.archiveStore = archiveStore;
+    this.custodyViews = custodyViews;
   }
 
-  @GetMapping("/{contrabandId}")
-  public List<Map<String, Object>> getChain(@PathVariable String contrabandId) {
+  @GetMapping(value = "/{contrabandId}", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE})
+  public ResponseEntity<List<Map<String, Object>>> getChain(@PathVariable String contrabandId,
+                                                           @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+    String etag = collectionVersions.etag(CollectionVersions.custody(contrabandId));
+    return ConditionalGet.respond(ifNoneMatch, etag, ConditionalGet.REVALIDATE, () -> loadChain(contrabandId));
+  }
+
+  private List<Map<String, Object>> loadChain(String contrabandId) {
     List<CustodyRecord> recs = custodyRepository.findByContrabandIdOrderByTransferDateDesc(contrabandId);
-    Map<String, User> userCache = new HashMap<>();
-    List<Map<String, Object>> result = new ArrayList<>();
-    for (CustodyRecord r : recs) {
-      Map<String, Object> map = new LinkedHashMap<>();
-      map.put("id", r.getId());
-      map.put("contraband_id", r.getContrabandId());
-      map.put("from_user_id", r.getFromUserId());
-      map.put("to_user_id", r.getToUserId());
-      map.put("transfer_reason", r.getTransferReason());
-      map.put("transfer_date", r.getTransferDate());
-      map.put("location", r.getLocation());
-      map.put("notes", r.getNotes());
-      if (r.getFromUserId() != null) {
-        User fu = userCache.computeIfAbsent(r.getFromUserId(), id -> userRepository.findById(id).orElse(null));
-        if (fu != null) map.put("from_user", Map.of("full_name", fu.getFullName(), "badge_number", fu.getBadgeNumber()));
-      }
-      if (r.getToUserId() != null) {
-        User tu = userCache.computeIfAbsent(r.getToUserId(), id -> userRepository.findById(id).orElse(null));
-        if (tu != null) map.put("to_user", Map.of("full_name", tu.getFullName(), "badge_number", tu.getBadgeNumber()));
-      }
-      result.add(map);
+    if (recs.isEmpty()) {
+      recs = archiveStore.findById(contrabandId).map(ArchivedItem::custody).orElse(List.of());
     }
-    return result;
+    return custodyViews.of(recs);
   }
 
   @PostMapping("/transfers")
+  @Transactional
   public ResponseEntity<?> transfer(@RequestBody Map<String, Object> body, Authentication auth) {
     CustodyRecord r = new CustodyRecord();
     r.setContrabandId((String) body.get("contraband_id"));
@@ -57,6 +57,8 @@ public class CustodyController {
     r.setLocation((String) body.get("location"));
     r.setNotes((String) body.get("notes"));
     custodyRepository.save(r);
+    changeLog.upserted(ChangeLog.CUSTODY, r.getId());
+    if (r.getContrabandId() != null) collectionVersions.bump(CollectionVersions.custody(r.getContrabandId()));
     return ResponseEntity.ok(Map.of("id", r.getId()));
   }
 }
\ No newline at end of file
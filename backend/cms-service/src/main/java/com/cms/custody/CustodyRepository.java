@@ -1,9 +1,28 @@
 package com.cms.custody;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 
 public interface CustodyRepository extends JpaRepository<CustodyRecord, String> {
   List<CustodyRecord> findByContrabandIdOrderByTransferDateDesc(String contrabandId);
-}
\ No newline at end of file
+
+  List<CustodyRecord> findByContrabandIdIn(Collection<String> contrabandIds);
+
+  /** Records strictly before ({@code before}, {@code beforeId}) in (transferDate, id) order, newest first. */
+  @Query("select r from CustodyRecord r where r.contrabandId = :contrabandId "
+      + "and (r.transferDate < :before or (r.transferDate = :before and r.id < :beforeId)) "
+      + "order by r.transferDate desc, r.id desc")
+  List<CustodyRecord> findPageBefore(@Param("contrabandId") String contrabandId, @Param("before") Instant before,
+                                     @Param("beforeId") String beforeId, Pageable pageable);
+
+  @Modifying
+  @Query("delete from CustodyRecord r where r.id in :ids")
+  int deleteByIdIn(@Param("ids") Collection<String> ids);
+}
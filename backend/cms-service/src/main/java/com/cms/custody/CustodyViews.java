@@ -0,0 +1,50 @@
+package com.cms.custody;
+
+import com.cms.user.User;
+import com.cms.user.UserRepository;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+/** The snake_case custody payload served by {@code /custody} and {@code /sync}, with both officers filled in. */
+@Component
+public class CustodyViews {
+  private final UserRepository userRepository;
+
+  public CustodyViews(UserRepository userRepository) {
+    this.userRepository = userRepository;
+  }
+
+  public List<Map<String, Object>> of(List<CustodyRecord> recs) {
+    Map<String, User> userCache = new HashMap<>();
+    List<Map<String, Object>> result = new ArrayList<>();
+    for (CustodyRecord r : recs) {
+      Map<String, Object> map = new LinkedHashMap<>();
+      map.put("id", r.getId());
+      map.put("contraband_id", r.getContrabandId());
+      map.put("from_user_id", r.getFromUserId());
+      map.put("to_user_id", r.getToUserId());
+      map.put("transfer_reason", r.getTransferReason());
+      map.put("transfer_date", r.getTransferDate());
+      map.put("location", r.getLocation());
+      map.put("notes", r.getNotes());
+      if (r.getFromUserId() != null) {
+        User fu = userCache.computeIfAbsent(r.getFromUserId(), id -> userRepository.findById(id).orElse(null));
+        if (fu != null) map.put("from_user", officer(fu));
+      }
+      if (r.getToUserId() != null) {
+        User tu = userCache.computeIfAbsent(r.getToUserId(), id -> userRepository.findById(id).orElse(null));
+        if (tu != null) map.put("to_user", officer(tu));
+      }
+      result.add(map);
+    }
+    return result;
+  }
+
+  private static Map<String, Object> officer(User u) {
+    Map<String, Object> view = new LinkedHashMap<>();
+    view.put("full_name", u.getFullName());
+    view.put("badge_number", u.getBadgeNumber());
+    return view;
+  }
+}
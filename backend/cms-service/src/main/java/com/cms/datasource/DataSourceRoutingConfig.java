@@ -0,0 +1,53 @@
+package com.cms.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Replaces the single auto-configured pool with a primary pool plus one read-only pool per replica when
+ * {@code app.datasource.routing.enabled} is set. Repository reads run in read-only transactions and so go to a replica.
+ */
+@Configuration
+@EnableConfigurationProperties(RoutingProperties.class)
+@ConditionalOnProperty(prefix = "app.datasource.routing", name = "enabled", havingValue = "true")
+public class DataSourceRoutingConfig {
+
+  @Bean
+  public ReadWriteRoutingDataSource routingDataSource(DataSourceProperties properties, RoutingProperties routing) {
+    HikariDataSource primary = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    primary.setPoolName("cms-primary");
+
+    List<HikariDataSource> replicas = new ArrayList<>();
+    for (RoutingProperties.Replica r : routing.getReplicas()) {
+      HikariDataSource replica = DataSourceBuilder.create()
+          .type(HikariDataSource.class)
+          .driverClassName(properties.determineDriverClassName())
+          .url(r.getUrl())
+          .username(r.getUsername())
+          .password(r.getPassword())
+          .build();
+      replica.setPoolName("cms-replica-" + replicas.size());
+      replica.setReadOnly(true);
+      replica.setMaximumPoolSize(r.getMaximumPoolSize());
+      replicas.add(replica);
+    }
+    return new ReadWriteRoutingDataSource(primary, replicas, new ReadYourWrites(routing.getReadYourWritesWindow()));
+  }
+
+  @Bean
+  @Primary
+  public DataSource dataSource(ReadWriteRoutingDataSource routingDataSource) {
+    return new LazyConnectionDataSourceProxy(routingDataSource);
+  }
+}
@@ -0,0 +1,27 @@
+package com.cms.datasource;
+
+import java.util.function.Supplier;
+
+/**
+ * Marks reads that must see the primary even inside read-only transactions, such as bodies served under an ETag
+ * whose version was read from the primary. Without read routing this has no effect.
+ */
+public final class PrimaryReads {
+  private static final ThreadLocal<Boolean> ACTIVE = new ThreadLocal<>();
+
+  private PrimaryReads() {}
+
+  public static <T> T call(Supplier<T> reads) {
+    if (Boolean.TRUE.equals(ACTIVE.get())) return reads.get();
+    ACTIVE.set(Boolean.TRUE);
+    try {
+      return reads.get();
+    } finally {
+      ACTIVE.remove();
+    }
+  }
+
+  static boolean active() {
+    return Boolean.TRUE.equals(ACTIVE.get());
+  }
+}
@@ -0,0 +1,65 @@
+package com.cms.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends read-only transactions round-robin to the replicas and everything else to the primary. Must sit behind a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy} so the transaction's read-only flag is
+ * already set when the physical connection is chosen.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+  static final String PRIMARY = "primary";
+
+  private final HikariDataSource primary;
+  private final List<HikariDataSource> replicas;
+  private final List<String> replicaKeys = new ArrayList<>();
+  private final ReadYourWrites readYourWrites;
+  private final AtomicInteger next = new AtomicInteger();
+
+  public ReadWriteRoutingDataSource(HikariDataSource primary, List<HikariDataSource> replicas, ReadYourWrites readYourWrites) {
+    this.primary = primary;
+    this.replicas = replicas;
+    this.readYourWrites = readYourWrites;
+    Map<Object, Object> targets = new HashMap<>();
+    targets.put(PRIMARY, primary);
+    for (int i = 0; i < replicas.size(); i++) {
+      String key = "replica-" + i;
+      targets.put(key, replicas.get(i));
+      replicaKeys.add(key);
+    }
+    setTargetDataSources(targets);
+    setDefaultTargetDataSource(primary);
+  }
+
+  @Override
+  protected Object determineCurrentLookupKey() {
+    String userId = currentUserId();
+    if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+      if (TransactionSynchronizationManager.isActualTransactionActive()) readYourWrites.recordWrite(userId);
+      return PRIMARY;
+    }
+    if (replicaKeys.isEmpty() || PrimaryReads.active() || readYourWrites.recentlyWrote(userId)) return PRIMARY;
+    return replicaKeys.get(Math.floorMod(next.getAndIncrement(), replicaKeys.size()));
+  }
+
+  private static String currentUserId() {
+    Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+    return auth != null && auth.getPrincipal() instanceof String s ? s : null;
+  }
+
+  @Override
+  public void close() {
+    replicas.forEach(HikariDataSource::close);
+    primary.close();
+  }
+}
@@ -0,0 +1,38 @@
+package com.cms.datasource;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers who wrote recently so their next reads go to the primary instead of a replica that may lag behind.
+ */
+class ReadYourWrites {
+  private static final int PURGE_THRESHOLD = 10_000;
+
+  private final long windowNanos;
+  private final ConcurrentHashMap<String, Long> pinnedUntil = new ConcurrentHashMap<>();
+
+  ReadYourWrites(Duration window) {
+    this.windowNanos = window.toNanos();
+  }
+
+  void recordWrite(String userId) {
+    if (userId == null || windowNanos <= 0) return;
+    long now = System.nanoTime();
+    pinnedUntil.put(userId, now + windowNanos);
+    if (pinnedUntil.size() > PURGE_THRESHOLD) {
+      pinnedUntil.values().removeIf(until -> until - now < 0);
+    }
+  }
+
+  boolean recentlyWrote(String userId) {
+    if (userId == null) return false;
+    Long until = pinnedUntil.get(userId);
+    if (until == null) return false;
+    if (until - System.nanoTime() < 0) {
+      pinnedUntil.remove(userId, until);
+      return false;
+    }
+    return true;
+  }
+}
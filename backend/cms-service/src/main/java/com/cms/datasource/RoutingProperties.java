@@ -0,0 +1,38 @@
+package com.cms.datasource;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@ConfigurationProperties(prefix = "app.datasource.routing")
+public class RoutingProperties {
+  private boolean enabled = false;
+  /** How long a user's reads stay on the primary after they write; set it above the replicas' worst-case lag. */
+  private Duration readYourWritesWindow = Duration.ofSeconds(2);
+  private List<Replica> replicas = new ArrayList<>();
+
+  public static class Replica {
+    private String url;
+    private String username;
+    private String password;
+    private int maximumPoolSize = 10;
+
+    public String getUrl() { return url; }
+    public void setUrl(String url) { this.url = url; }
+    public String getUsername() { return username; }
+    public void setUsername(String username) { this.username = username; }
+    public String getPassword() { return password; }
+    public void setPassword(String password) { this.password = password; }
+    public int getMaximumPoolSize() { return maximumPoolSize; }
+    public void setMaximumPoolSize(int maximumPoolSize) { this.maximumPoolSize = maximumPoolSize; }
+  }
+
+  public boolean isEnabled() { return enabled; }
+  public void setEnabled(boolean enabled) { this.enabled = enabled; }
+  public Duration getReadYourWritesWindow() { return readYourWritesWindow; }
+  public void setReadYourWritesWindow(Duration readYourWritesWindow) { this.readYourWritesWindow = readYourWritesWindow; }
+  public List<Replica> getReplicas() { return replicas; }
+  public void setReplicas(List<Replica> replicas) { this.replicas = replicas; }
+}
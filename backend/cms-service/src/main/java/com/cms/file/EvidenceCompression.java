@@ -0,0 +1,26 @@
+package com.cms.file;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Locale;
+
+/** Decides which uploads are worth compressing; photos and video are already compressed and are stored as-is. */
+@Component
+public class EvidenceCompression {
+  private final boolean enabled;
+  private final List<String> types;
+
+  public EvidenceCompression(@Value("${app.evidence.compression.enabled:true}") boolean enabled,
+                             @Value("${app.evidence.compression.types:text/,application/json,application/xml,application/pdf,image/svg+xml,image/bmp,image/tiff}") List<String> types) {
+    this.enabled = enabled;
+    this.types = types.stream().map(t -> t.trim().toLowerCase(Locale.ROOT)).toList();
+  }
+
+  public boolean shouldCompress(String contentType) {
+    if (!enabled || contentType == null) return false;
+    String ct = contentType.toLowerCase(Locale.ROOT);
+    return types.stream().anyMatch(ct::startsWith);
+  }
+}
@@ -17,6 +17,12 @@ public class EvidenceFile {
   private String uploadedBy;
   private String description;
   private Instant uploadedAt = Instant.now();
+  private String storageKey; // null for files uploaded before sharding: stored flat under fileName
+  private Long storedSize;
+  private boolean compressed = false;
+  private String sha256;
+  private String integrityStatus = "unverified"; // unverified, ok, corrupt, missing
+  private Instant lastVerifiedAt;
 
   public String getId() { return id; }
   public void setId(String id) { this.id = id; }
@@ -36,4 +42,19 @@ public class EvidenceFile {
   public void setDescription(String description) { this.description = description; }
   public Instant getUploadedAt() { return uploadedAt; }
   public void setUploadedAt(Instant uploadedAt) { this.uploadedAt = uploadedAt; }
+  public String getStorageKey() { return storageKey; }
+  public void setStorageKey(String storageKey) { this.storageKey = storageKey; }
+  public Long getStoredSize() { return storedSize; }
+  public void setStoredSize(Long storedSize) { this.storedSize = storedSize; }
+  public boolean isCompressed() { return compressed; }
+  public void setCompressed(boolean compressed) { this.compressed = compressed; }
+  public String getSha256() { return sha256; }
+  public void setSha256(String sha256) { this.sha256 = sha256; }
+  public String getIntegrityStatus() { return integrityStatus; }
+  public void setIntegrityStatus(String integrityStatus) { this.integrityStatus = integrityStatus; }
+  public Instant getLastVerifiedAt() { return lastVerifiedAt; }
+  public void setLastVerifiedAt(Instant lastVerifiedAt) { this.lastVerifiedAt = lastVerifiedAt; }
+
+  /** Key of the stored bytes in the {@link EvidenceStore}. */
+  public String resolveStorageKey() { return storageKey != null ? storageKey : fileName; }
 }
\ No newline at end of file
@@ -1,5 +1,50 @@
 package com.cms.file;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
-public interface EvidenceFileRepository extends JpaRepository<EvidenceFile, String> {}
\ No newline at end of file
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface EvidenceFileRepository extends JpaRepository<EvidenceFile, String> {
+  List<EvidenceFile> findByContrabandIdIn(Collection<String> contrabandIds);
+
+  List<EvidenceFile> findByContrabandIdOrderByUploadedAtDesc(String contrabandId);
+
+  /** Files strictly before ({@code before}, {@code beforeId}) in (uploadedAt, id) order, newest first. */
+  @Query("select f from EvidenceFile f where f.contrabandId = :contrabandId "
+      + "and (f.uploadedAt < :before or (f.uploadedAt = :before and f.id < :beforeId)) "
+      + "order by f.uploadedAt desc, f.id desc")
+  List<EvidenceFile> findPageBefore(@Param("contrabandId") String contrabandId, @Param("before") Instant before,
+                                    @Param("beforeId") String beforeId, Pageable pageable);
+
+  Optional<EvidenceFile> findFirstByFileName(String fileName);
+
+  List<EvidenceFile> findByIdGreaterThanOrderByIdAsc(String id, Pageable pageable);
+
+  List<EvidenceFile> findByIntegrityStatusInOrderByLastVerifiedAtDesc(Collection<String> statuses);
+
+  @Modifying
+  @Query("delete from EvidenceFile f where f.id in :ids")
+  int deleteByIdIn(@Param("ids") Collection<String> ids);
+
+  @Modifying
+  @Transactional
+  @Query("update EvidenceFile f set f.integrityStatus = :status, f.lastVerifiedAt = :verifiedAt, "
+      + "f.sha256 = coalesce(f.sha256, :sha256) where f.id = :id")
+  int recordVerification(@Param("id") String id, @Param("status") String status,
+                         @Param("verifiedAt") Instant verifiedAt, @Param("sha256") String sha256);
+
+  @Modifying
+  @Transactional
+  @Query("update EvidenceFile f set f.storageKey = :storageKey, f.storedSize = :storedSize, f.compressed = :compressed "
+      + "where f.id = :id")
+  int relocate(@Param("id") String id, @Param("storageKey") String storageKey,
+               @Param("storedSize") long storedSize, @Param("compressed") boolean compressed);
+}
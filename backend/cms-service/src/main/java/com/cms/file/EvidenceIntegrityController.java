@@ -0,0 +1,33 @@
+package com.cms.file;
+
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.*;
+
+@RestController
+@RequestMapping("/evidence/integrity")
+public class EvidenceIntegrityController {
+  private final EvidenceFileRepository evidenceFileRepository;
+
+  public EvidenceIntegrityController(EvidenceFileRepository evidenceFileRepository) {
+    this.evidenceFileRepository = evidenceFileRepository;
+  }
+
+  @GetMapping
+  public List<Map<String, Object>> failures() {
+    List<Map<String, Object>> result = new ArrayList<>();
+    for (EvidenceFile ef : evidenceFileRepository.findByIntegrityStatusInOrderByLastVerifiedAtDesc(List.of("corrupt", "missing"))) {
+      Map<String, Object> m = new LinkedHashMap<>();
+      m.put("id", ef.getId());
+      m.put("contraband_id", ef.getContrabandId());
+      m.put("file_name", ef.getFileName());
+      m.put("integrity_status", ef.getIntegrityStatus());
+      m.put("last_verified_at", ef.getLastVerifiedAt());
+      m.put("sha256", ef.getSha256());
+      result.add(m);
+    }
+    return result;
+  }
+}
@@ -0,0 +1,225 @@
+package com.cms.file;
+
+import com.cms.archive.ArchivedItem;
+import com.cms.archive.ItemArchiveStore;
+import com.cms.audit.AuditLog;
+import com.cms.audit.AuditRepository;
+import com.cms.cache.CollectionVersions;
+import com.cms.scheduling.JobLocks;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * Background integrity check for stored evidence. A single minimum-priority daemon thread walks evidence_files in
+ * ID order, re-hashes each object and records ok, corrupt or missing. Reads are throttled to
+ * {@code app.evidence.scrub.bytes-per-second}, and the thread rests for {@code pass-interval} after each full pass.
+ * Files uploaded before digests were kept have their first computed digest adopted as the reference, and files
+ * still in the old flat upload directory are moved into the sharded layout once they verify. Evidence of archived
+ * items has no row to record a result on, so it is checked from the archive metadata and only failures are reported.
+ */
+@Component
+@Lazy(false)
+public class EvidenceScrubber {
+  private static final Logger log = LoggerFactory.getLogger(EvidenceScrubber.class);
+  private static final int PAGE_SIZE = 100;
+
+  private final EvidenceFileRepository evidenceFileRepository;
+  private final EvidenceStore evidenceStore;
+  private final AuditRepository auditRepository;
+  private final ItemArchiveStore archiveStore;
+  private final CollectionVersions collectionVersions;
+  private final JobLocks jobLocks;
+  private final boolean enabled;
+  private final long bytesPerSecond;
+  private final Duration passInterval;
+  private final Duration lockLease;
+
+  public EvidenceScrubber(EvidenceFileRepository evidenceFileRepository, EvidenceStore evidenceStore,
+                          AuditRepository auditRepository, ItemArchiveStore archiveStore,
+                          CollectionVersions collectionVersions, JobLocks jobLocks,
+                          @Value("${app.evidence.scrub.enabled:true}") boolean enabled,
+                          @Value("${app.evidence.scrub.bytes-per-second:4194304}") long bytesPerSecond,
+                          @Value("${app.evidence.scrub.pass-interval:PT6H}") Duration passInterval,
+                          @Value("${app.evidence.scrub.lock-lease:P1D}") Duration lockLease) {
+    this.evidenceFileRepository = evidenceFileRepository;
+    this.evidenceStore = evidenceStore;
+    this.auditRepository = auditRepository;
+    this.archiveStore = archiveStore;
+    this.collectionVersions = collectionVersions;
+    this.jobLocks = jobLocks;
+    this.enabled = enabled;
+    this.bytesPerSecond = Math.max(64 * 1024, bytesPerSecond);
+    this.passInterval = passInterval;
+    this.lockLease = lockLease;
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void start() {
+    if (!enabled) return;
+    Thread t = new Thread(this::run, "evidence-scrubber");
+    t.setDaemon(true);
+    t.setPriority(Thread.MIN_PRIORITY);
+    t.start();
+  }
+
+  private void run() {
+    while (!Thread.currentThread().isInterrupted()) {
+      try {
+        // Every instance runs this loop; the lease, kept for a pass interval after each pass, lets one of them
+        // scrub per interval.
+        jobLocks.runExclusively(JobLocks.EVIDENCE_SCRUB, lockLease, passInterval, () -> {
+          try {
+            scrubPass();
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+        });
+        Thread.sleep(passInterval.toMillis());
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      } catch (RuntimeException e) {
+        log.error("Evidence scrub pass failed; retrying after the pass interval", e);
+        try {
+          Thread.sleep(passInterval.toMillis());
+        } catch (InterruptedException ie) {
+          Thread.currentThread().interrupt();
+        }
+      }
+    }
+  }
+
+  void scrubPass() throws InterruptedException {
+    String after = "";
+    int checked = 0;
+    int bad = 0;
+    List<EvidenceFile> page;
+    do {
+      page = evidenceFileRepository.findByIdGreaterThanOrderByIdAsc(after, PageRequest.of(0, PAGE_SIZE));
+      for (EvidenceFile ef : page) {
+        if (!verify(ef)) bad++;
+        checked++;
+        after = ef.getId();
+      }
+    } while (page.size() == PAGE_SIZE);
+    for (int segment = 0; segment < archiveStore.segmentCount(); segment++) {
+      List<ArchivedItem> items;
+      try {
+        items = archiveStore.itemsIn(segment);
+      } catch (IOException e) {
+        log.warn("Could not read archive segment {} for evidence scrubbing", segment, e);
+        continue;
+      }
+      for (ArchivedItem item : items) {
+        for (EvidenceFile ef : item.evidence()) {
+          if (!verifyArchived(ef)) bad++;
+          checked++;
+        }
+      }
+    }
+    log.info("Evidence scrub pass checked {} files, {} failed", checked, bad);
+  }
+
+  private boolean verify(EvidenceFile ef) throws InterruptedException {
+    String status;
+    String digest = null;
+    try (InputStream in = evidenceStore.open(ef.resolveStorageKey())) {
+      digest = throttledDigest(in);
+      status = ef.getSha256() == null || ef.getSha256().equals(digest) ? "ok" : "corrupt";
+    } catch (FileNotFoundException e) {
+      status = "missing";
+    } catch (IOException e) {
+      // Unreadable content (e.g. a damaged gzip stream) is corruption, not a transient error.
+      status = "corrupt";
+    }
+    evidenceFileRepository.recordVerification(ef.getId(), status, Instant.now(), digest);
+    if ("ok".equals(status) && ef.getStorageKey() == null && ef.getFileName() != null) relocate(ef, digest);
+    if (!"ok".equals(status) && !status.equals(ef.getIntegrityStatus())) report(ef, status);
+    return "ok".equals(status);
+  }
+
+  private boolean verifyArchived(EvidenceFile ef) throws InterruptedException {
+    String status;
+    try (InputStream in = ef.getStorageKey() != null
+        ? evidenceStore.open(ef.getStorageKey()) : evidenceStore.openByFileName(ef.getFileName())) {
+      String digest = throttledDigest(in);
+      status = ef.getSha256() == null || ef.getSha256().equals(digest) ? "ok" : "corrupt";
+    } catch (FileNotFoundException e) {
+      status = "missing";
+    } catch (IOException e) {
+      status = "corrupt";
+    }
+    if ("ok".equals(status)) return true;
+    // There is no integrity_status to compare with, so an audit entry still in the hot table stands for the report.
+    if (!auditRepository.existsByRecordIdAndAction(ef.getId(), action(status))) report(ef, status);
+    return false;
+  }
+
+  private void report(EvidenceFile ef, String status) {
+    log.warn("Evidence file {} ({}) failed integrity check: {}", ef.getId(), ef.getFileName(), status);
+    AuditLog audit = new AuditLog();
+    audit.setAction(action(status));
+    audit.setTableName("evidence_files");
+    audit.setRecordId(ef.getId());
+    audit.setNewValuesJson("{\"contraband_id\":\"" + ef.getContrabandId() + "\",\"file_name\":\"" + ef.getFileName() + "\"}");
+    auditRepository.save(audit);
+    collectionVersions.bumpAfterCommit(CollectionVersions.AUDIT_LOGS);
+  }
+
+  private void relocate(EvidenceFile ef, String digest) {
+    String key = EvidenceStore.shardedKey(ef.getFileName());
+    try {
+      EvidenceStore.StoredObject stored;
+      try (InputStream in = evidenceStore.open(ef.getFileName())) {
+        stored = evidenceStore.put(key, in, ef.getFileType());
+      }
+      if (!stored.sha256().equals(digest)) {
+        evidenceStore.delete(key);
+        log.warn("Evidence file {} changed while being relocated; left in place", ef.getId());
+        return;
+      }
+      evidenceFileRepository.relocate(ef.getId(), key, stored.storedSize(), stored.compressed());
+      evidenceStore.delete(ef.getFileName());
+    } catch (IOException e) {
+      log.warn("Could not relocate evidence file {} into the sharded layout", ef.getId(), e);
+    }
+  }
+
+  private static String action(String status) {
+    return "EVIDENCE_INTEGRITY_" + status.toUpperCase();
+  }
+
+  private String throttledDigest(InputStream in) throws IOException, InterruptedException {
+    MessageDigest sha = LocalEvidenceStore.sha256();
+    byte[] buf = new byte[64 * 1024];
+    long windowStart = System.nanoTime();
+    long windowBytes = 0;
+    int n;
+    while ((n = in.read(buf)) > 0) {
+      sha.update(buf, 0, n);
+      windowBytes += n;
+      long expectedNanos = windowBytes * 1_000_000_000L / bytesPerSecond;
+      long elapsed = System.nanoTime() - windowStart;
+      if (expectedNanos > elapsed) Thread.sleep((expectedNanos - elapsed) / 1_000_000L);
+      if (elapsed > 1_000_000_000L) {
+        windowStart = System.nanoTime();
+        windowBytes = 0;
+      }
+    }
+    return HexFormat.of().formatHex(sha.digest());
+  }
+}
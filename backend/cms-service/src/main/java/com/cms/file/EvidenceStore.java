@@ -0,0 +1,45 @@
+package com.cms.file;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Storage backend for evidence bytes. Keys are sharded as {@code ab/cd/<fileName>} from the (random) file name,
+ * so no directory or prefix grows past a few hundred entries. Implementations may compress on write; {@link #open}
+ * always returns the original bytes.
+ */
+public interface EvidenceStore {
+
+  record StoredObject(String key, long size, long storedSize, String sha256, boolean compressed) {}
+
+  StoredObject put(String key, InputStream content, String contentType) throws IOException;
+
+  InputStream open(String key) throws IOException;
+
+  boolean exists(String key) throws IOException;
+
+  /**
+   * Opens a file whose storage key is not on record, for example one archived with its item: the sharded layout
+   * first, then the flat upload directory used before it.
+   */
+  default InputStream openByFileName(String fileName) throws IOException {
+    String sharded = shardedKey(fileName);
+    if (!sharded.equals(fileName)) {
+      try {
+        return open(sharded);
+      } catch (FileNotFoundException e) {
+        // Not relocated yet; try the legacy path.
+      }
+    }
+    return open(fileName);
+  }
+
+  void delete(String key) throws IOException;
+
+  static String shardedKey(String fileName) {
+    String hex = fileName.replace("-", "").toLowerCase();
+    if (hex.length() < 4) return fileName;
+    return hex.substring(0, 2) + "/" + hex.substring(2, 4) + "/" + fileName;
+  }
+}
@@ -0,0 +1,39 @@
+package com.cms.file;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+@Configuration
+public class EvidenceStoreConfig {
+
+  /**
+   * {@code app.evidence.store=local} (default) keeps evidence under {@code app.evidence.dir};
+   * {@code object} uses an {@link ObjectStorageClient} bean, or the filesystem stand-in if none is defined. When
+   * {@code app.evidence.dir} still exists, flat pre-sharding files are read from it until the scrubber moves them.
+   */
+  @Bean
+  public EvidenceStore evidenceStore(@Value("${app.evidence.store:local}") String type,
+                                     @Value("${app.evidence.dir:${user.dir}/uploads}") String dir,
+                                     @Value("${app.evidence.bucket:evidence}") String bucket,
+                                     @Value("${app.evidence.object-root:${user.dir}/object-store}") String objectRoot,
+                                     ObjectProvider<ObjectStorageClient> clients,
+                                     EvidenceCompression compression) throws IOException {
+    if ("object".equalsIgnoreCase(type)) {
+      ObjectStorageClient client = clients.getIfAvailable();
+      if (client == null) client = new LocalObjectStorageClient(Paths.get(objectRoot));
+      EvidenceStore store = new ObjectStorageEvidenceStore(client, bucket, compression);
+      Path legacyDir = Paths.get(dir);
+      return Files.isDirectory(legacyDir)
+          ? new LegacyFallbackEvidenceStore(store, new LocalEvidenceStore(legacyDir, compression))
+          : store;
+    }
+    return new LocalEvidenceStore(Paths.get(dir), compression);
+  }
+}
@@ -1,16 +1,15 @@
 package com.cms.file;
 
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.InputStreamResource;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.FileNotFoundException;
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.io.InputStream;
 import java.util.Map;
 import java.util.UUID;
 
@@ -19,14 +18,12 @@ import java.util.UUID;
 public class FileController {
 
   private final EvidenceFileRepository evidenceFileRepository;
-  private final Path uploadDir;
+  private final EvidenceStore evidenceStore;
   private final String publicBaseUrl;
 
-  public FileController(EvidenceFileRepository evidenceFileRepository,
-                        @Value("${user.dir}") String userDir) throws IOException {
+  public FileController(EvidenceFileRepository evidenceFileRepository, EvidenceStore evidenceStore) {
     this.evidenceFileRepository = evidenceFileRepository;
-    this.uploadDir = Paths.get(userDir, "uploads");
-    Files.createDirectories(uploadDir);
+    this.evidenceStore = evidenceStore;
     this.publicBaseUrl = "/api/files";
   }
 
@@ -39,8 +36,10 @@ public class FileController {
   ) throws IOException {
     String ext = StringUtils.getFilenameExtension(file.getOriginalFilename());
     String fileName = UUID.randomUUID() + (ext != null ? "." + ext : "");
-    Path dest = uploadDir.resolve(fileName);
-    Files.copy(file.getInputStream(), dest);
+    EvidenceStore.StoredObject stored;
+    try (InputStream in = file.getInputStream()) {
+      stored = evidenceStore.put(EvidenceStore.shardedKey(fileName), in, file.getContentType());
+    }
 
     String url = publicBaseUrl + "/" + fileName;
 
@@ -48,20 +47,28 @@ public class FileController {
     ef.setContrabandId(contrabandId);
     ef.setFileName(fileName);
     ef.setFileType(file.getContentType());
-    ef.setFileSize(file.getSize());
+    ef.setFileSize(stored.size());
     ef.setFileUrl(url);
     ef.setUploadedBy(uploadedBy);
     ef.setDescription(description);
+    ef.setStorageKey(stored.key());
+    ef.setStoredSize(stored.storedSize());
+    ef.setCompressed(stored.compressed());
+    ef.setSha256(stored.sha256());
     evidenceFileRepository.save(ef);
 
     return ResponseEntity.ok(Map.of("file_url", url, "file_name", fileName));
   }
 
   @GetMapping(value = "/{fileName}")
-  public ResponseEntity<byte[]> serve(@PathVariable String fileName) throws IOException {
-    Path path = uploadDir.resolve(fileName);
-    if (!Files.exists(path)) return ResponseEntity.notFound().build();
-    byte[] bytes = Files.readAllBytes(path);
-    return ResponseEntity.ok().contentType(MediaType.APPLICATION_OCTET_STREAM).body(bytes);
+  public ResponseEntity<InputStreamResource> serve(@PathVariable String fileName) throws IOException {
+    // Archived items take their evidence_files rows along, so a missing row does not mean a legacy flat file.
+    String key = evidenceFileRepository.findFirstByFileName(fileName).map(EvidenceFile::getStorageKey).orElse(null);
+    try {
+      InputStream in = key != null ? evidenceStore.open(key) : evidenceStore.openByFileName(fileName);
+      return ResponseEntity.ok().contentType(MediaType.APPLICATION_OCTET_STREAM).body(new InputStreamResource(in));
+    } catch (FileNotFoundException e) {
+      return ResponseEntity.notFound().build();
+    }
   }
-}
\ No newline at end of file
+}
@@ -0,0 +1,50 @@
+package com.cms.file;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Object storage in front of the local directory that held uploads before sharding. Flat keys (no slash) that are
+ * not in the bucket are read from, and deleted from, the legacy directory, so old files stay servable and the
+ * scrubber can copy them into the sharded layout in the bucket. New objects only ever go to the bucket.
+ */
+class LegacyFallbackEvidenceStore implements EvidenceStore {
+  private final EvidenceStore primary;
+  private final EvidenceStore legacy;
+
+  LegacyFallbackEvidenceStore(EvidenceStore primary, EvidenceStore legacy) {
+    this.primary = primary;
+    this.legacy = legacy;
+  }
+
+  @Override
+  public StoredObject put(String key, InputStream content, String contentType) throws IOException {
+    return primary.put(key, content, contentType);
+  }
+
+  @Override
+  public InputStream open(String key) throws IOException {
+    try {
+      return primary.open(key);
+    } catch (FileNotFoundException e) {
+      if (!isFlat(key)) throw e;
+      return legacy.open(key);
+    }
+  }
+
+  @Override
+  public boolean exists(String key) throws IOException {
+    return primary.exists(key) || (isFlat(key) && legacy.exists(key));
+  }
+
+  @Override
+  public void delete(String key) throws IOException {
+    primary.delete(key);
+    if (isFlat(key)) legacy.delete(key);
+  }
+
+  private static boolean isFlat(String key) {
+    return key.indexOf('/') < 0;
+  }
+}
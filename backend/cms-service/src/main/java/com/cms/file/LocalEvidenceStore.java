@@ -0,0 +1,89 @@
+package com.cms.file;
+
+import java.io.*;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Evidence on the local filesystem under a sharded directory tree. Compressed objects carry a {@code .gz} suffix.
+ * Flat keys (no slash) resolve directly under the root, which keeps files uploaded before sharding readable.
+ */
+public class LocalEvidenceStore implements EvidenceStore {
+  private static final String GZ = ".gz";
+
+  private final Path root;
+  private final EvidenceCompression compression;
+
+  public LocalEvidenceStore(Path root, EvidenceCompression compression) throws IOException {
+    this.root = root.toAbsolutePath().normalize();
+    this.compression = compression;
+    Files.createDirectories(this.root);
+  }
+
+  @Override
+  public StoredObject put(String key, InputStream content, String contentType) throws IOException {
+    Path target = resolve(key);
+    Files.createDirectories(target.getParent());
+    boolean compress = compression.shouldCompress(contentType);
+    Path finalPath = compress ? target.resolveSibling(target.getFileName() + GZ) : target;
+    Path temp = Files.createTempFile(target.getParent(), ".upload-", ".tmp");
+    MessageDigest sha = sha256();
+    long size;
+    try {
+      try (DigestInputStream in = new DigestInputStream(content, sha);
+           OutputStream file = Files.newOutputStream(temp);
+           OutputStream out = compress ? new GZIPOutputStream(file, 64 * 1024) : new BufferedOutputStream(file, 64 * 1024)) {
+        size = in.transferTo(out);
+      }
+      try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+        channel.force(true);
+      }
+      Files.move(temp, finalPath, StandardCopyOption.ATOMIC_MOVE);
+    } finally {
+      Files.deleteIfExists(temp);
+    }
+    return new StoredObject(key, size, Files.size(finalPath), HexFormat.of().formatHex(sha.digest()), compress);
+  }
+
+  @Override
+  public InputStream open(String key) throws IOException {
+    Path plain = resolve(key);
+    if (Files.exists(plain)) return new BufferedInputStream(Files.newInputStream(plain), 64 * 1024);
+    Path gz = plain.resolveSibling(plain.getFileName() + GZ);
+    if (Files.exists(gz)) return new GZIPInputStream(Files.newInputStream(gz), 64 * 1024);
+    throw new FileNotFoundException(key);
+  }
+
+  @Override
+  public boolean exists(String key) throws IOException {
+    Path plain = resolve(key);
+    return Files.exists(plain) || Files.exists(plain.resolveSibling(plain.getFileName() + GZ));
+  }
+
+  @Override
+  public void delete(String key) throws IOException {
+    Path plain = resolve(key);
+    Files.deleteIfExists(plain);
+    Files.deleteIfExists(plain.resolveSibling(plain.getFileName() + GZ));
+  }
+
+  private Path resolve(String key) throws IOException {
+    Path p = root.resolve(key).normalize();
+    if (!p.startsWith(root) || p.equals(root)) throw new IOException("Invalid evidence key: " + key);
+    return p;
+  }
+
+  static MessageDigest sha256() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+}
@@ -0,0 +1,80 @@
+package com.cms.file;
+
+import java.io.*;
+import java.nio.file.*;
+import java.util.*;
+
+/** Filesystem stand-in for an object store: {@code <root>/<bucket>/<key>} plus a {@code .meta} properties sidecar. */
+public class LocalObjectStorageClient implements ObjectStorageClient {
+  private static final String META = ".meta";
+
+  private final Path root;
+
+  public LocalObjectStorageClient(Path root) throws IOException {
+    this.root = root.toAbsolutePath().normalize();
+    Files.createDirectories(this.root);
+  }
+
+  @Override
+  public void putObject(String bucket, String key, InputStream content, long contentLength, Map<String, String> metadata) throws IOException {
+    Path target = resolve(bucket, key);
+    Files.createDirectories(target.getParent());
+    Path temp = Files.createTempFile(target.getParent(), ".put-", ".tmp");
+    try {
+      long written;
+      try (OutputStream out = Files.newOutputStream(temp)) {
+        written = content.transferTo(out);
+      }
+      if (contentLength >= 0 && written != contentLength) {
+        throw new IOException("Expected " + contentLength + " bytes for " + key + " but got " + written);
+      }
+      Properties props = new Properties();
+      props.putAll(metadata);
+      try (OutputStream out = Files.newOutputStream(target.resolveSibling(target.getFileName() + META))) {
+        props.store(out, null);
+      }
+      Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    } finally {
+      Files.deleteIfExists(temp);
+    }
+  }
+
+  @Override
+  public InputStream getObject(String bucket, String key) throws IOException {
+    Path p = resolve(bucket, key);
+    if (!Files.exists(p)) throw new FileNotFoundException(bucket + "/" + key);
+    return Files.newInputStream(p);
+  }
+
+  @Override
+  public Optional<ObjectInfo> headObject(String bucket, String key) throws IOException {
+    Path p = resolve(bucket, key);
+    if (!Files.exists(p)) return Optional.empty();
+    Map<String, String> metadata = new HashMap<>();
+    Path meta = p.resolveSibling(p.getFileName() + META);
+    if (Files.exists(meta)) {
+      Properties props = new Properties();
+      try (InputStream in = Files.newInputStream(meta)) {
+        props.load(in);
+      }
+      props.stringPropertyNames().forEach(n -> metadata.put(n, props.getProperty(n)));
+    }
+    return Optional.of(new ObjectInfo(Files.size(p), metadata));
+  }
+
+  @Override
+  public void deleteObject(String bucket, String key) throws IOException {
+    Path p = resolve(bucket, key);
+    Files.deleteIfExists(p);
+    Files.deleteIfExists(p.resolveSibling(p.getFileName() + META));
+  }
+
+  private Path resolve(String bucket, String key) throws IOException {
+    Path bucketDir = root.resolve(bucket).normalize();
+    Path p = bucketDir.resolve(key).normalize();
+    if (!bucketDir.startsWith(root) || !p.startsWith(bucketDir) || p.equals(bucketDir)) {
+      throw new IOException("Invalid object key: " + bucket + "/" + key);
+    }
+    return p;
+  }
+}
@@ -0,0 +1,23 @@
+package com.cms.file;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * The subset of an S3-compatible object API the evidence store needs. An adapter over the AWS SDK or MinIO client
+ * can be registered as a bean; {@link LocalObjectStorageClient} is the filesystem stand-in used otherwise.
+ */
+public interface ObjectStorageClient {
+
+  record ObjectInfo(long contentLength, Map<String, String> metadata) {}
+
+  void putObject(String bucket, String key, InputStream content, long contentLength, Map<String, String> metadata) throws IOException;
+
+  InputStream getObject(String bucket, String key) throws IOException;
+
+  Optional<ObjectInfo> headObject(String bucket, String key) throws IOException;
+
+  void deleteObject(String bucket, String key) throws IOException;
+}
@@ -0,0 +1,74 @@
+package com.cms.file;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Evidence in an S3-compatible bucket. Uploads are spooled to a temp file first because object PUTs need the
+ * final (possibly compressed) length up front; digest and encoding travel as object metadata.
+ */
+public class ObjectStorageEvidenceStore implements EvidenceStore {
+  static final String META_SHA256 = "sha256";
+  static final String META_ENCODING = "content-encoding";
+  static final String META_CONTENT_TYPE = "content-type";
+
+  private final ObjectStorageClient client;
+  private final String bucket;
+  private final EvidenceCompression compression;
+
+  public ObjectStorageEvidenceStore(ObjectStorageClient client, String bucket, EvidenceCompression compression) {
+    this.client = client;
+    this.bucket = bucket;
+    this.compression = compression;
+  }
+
+  @Override
+  public StoredObject put(String key, InputStream content, String contentType) throws IOException {
+    boolean compress = compression.shouldCompress(contentType);
+    Path spool = Files.createTempFile("evidence-", ".spool");
+    try {
+      MessageDigest sha = LocalEvidenceStore.sha256();
+      long size;
+      try (DigestInputStream in = new DigestInputStream(content, sha);
+           OutputStream file = Files.newOutputStream(spool);
+           OutputStream out = compress ? new GZIPOutputStream(file, 64 * 1024) : new BufferedOutputStream(file, 64 * 1024)) {
+        size = in.transferTo(out);
+      }
+      String digest = HexFormat.of().formatHex(sha.digest());
+      long storedSize = Files.size(spool);
+      Map<String, String> metadata = compress
+          ? Map.of(META_SHA256, digest, META_ENCODING, "gzip", META_CONTENT_TYPE, String.valueOf(contentType))
+          : Map.of(META_SHA256, digest, META_CONTENT_TYPE, String.valueOf(contentType));
+      try (InputStream in = Files.newInputStream(spool)) {
+        client.putObject(bucket, key, in, storedSize, metadata);
+      }
+      return new StoredObject(key, size, storedSize, digest, compress);
+    } finally {
+      Files.deleteIfExists(spool);
+    }
+  }
+
+  @Override
+  public InputStream open(String key) throws IOException {
+    var info = client.headObject(bucket, key).orElseThrow(() -> new FileNotFoundException(bucket + "/" + key));
+    InputStream raw = new BufferedInputStream(client.getObject(bucket, key), 64 * 1024);
+    return "gzip".equals(info.metadata().get(META_ENCODING)) ? new GZIPInputStream(raw, 64 * 1024) : raw;
+  }
+
+  @Override
+  public boolean exists(String key) throws IOException {
+    return client.headObject(bucket, key).isPresent();
+  }
+
+  @Override
+  public void delete(String key) throws IOException {
+    client.deleteObject(bucket, key);
+  }
+}
@@ -20,6 +20,7 @@ public class Message {
   private boolean isRead = false;
   private boolean requiresResponse = false;
   private String parentMessageId;
+  private String threadRootId;
   private Instant createdAt = Instant.now();
   private Instant readAt;
 
@@ -45,6 +46,8 @@ public class Message {
   public void setRequiresResponse(boolean requiresResponse) { this.requiresResponse = requiresResponse; }
   public String getParentMessageId() { return parentMessageId; }
   public void setParentMessageId(String parentMessageId) { this.parentMessageId = parentMessageId; }
+  public String getThreadRootId() { return threadRootId; }
+  public void setThreadRootId(String threadRootId) { this.threadRootId = threadRootId; }
   public Instant getCreatedAt() { return createdAt; }
   public void setCreatedAt(Instant createdAt) { this.createdAt = createdAt; }
   public Instant getReadAt() { return readAt; }
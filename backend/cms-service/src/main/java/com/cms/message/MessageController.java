@@ -1,72 +1,77 @@
 package com.cms.message;
 
-import com.cms.contraband.ContrabandItem;
-import com.cms.contraband.ContrabandRepository;
-import com.cms.user.User;
-import com.cms.user.UserRepository;
+import com.cms.sync.ChangeLog;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.Instant;
+import java.time.temporal.ChronoUnit;
 import java.util.*;
 
 @RestController
 @RequestMapping("/messages")
 public class MessageController {
+  public static final int MARK_READ_CHUNK = 1000;
+
   private final MessageRepository messageRepository;
-  private final UserRepository userRepository;
-  private final ContrabandRepository contrabandRepository;
+  private final MessageViews messageViews;
+  private final ChangeLog changeLog;
 
-  public MessageController(MessageRepository messageRepository, UserRepository userRepository, ContrabandRepository contrabandRepository) {
+  public MessageController(MessageRepository messageRepository, MessageViews messageViews, ChangeLog changeLog) {
     this.messageRepository = messageRepository;
-    this.userRepository = userRepository;
-    this.contrabandRepository = contrabandRepository;
+    this.messageViews = messageViews;
+    this.changeLog = changeLog;
   }
 
-  @GetMapping
+  @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE})
   public List<Map<String, Object>> list(@RequestParam String userId) {
-    List<Message> msgs = messageRepository.findByFromUserIdOrToUserIdOrderByCreatedAtDesc(userId, userId);
-    Map<String, User> userCache = new HashMap<>();
-    Map<String, ContrabandItem> contrabandCache = new HashMap<>();
+    return toResponse(messageRepository.findByFromUserIdOrToUserIdOrderByCreatedAtDesc(userId, userId));
+  }
 
-    List<Map<String, Object>> result = new ArrayList<>();
-    for (Message m : msgs) {
-      Map<String, Object> map = new LinkedHashMap<>();
-      map.put("id", m.getId());
-      map.put("from_user_id", m.getFromUserId());
-      map.put("to_user_id", m.getToUserId());
-      map.put("subject", m.getSubject());
-      map.put("content", m.getContent());
-      map.put("priority", m.getPriority());
-      map.put("message_type", m.getMessageType());
-      map.put("contraband_id", m.getContrabandId());
-      map.put("is_read", m.isRead());
-      map.put("requires_response", m.isRequiresResponse());
-      map.put("parent_message_id", m.getParentMessageId());
-      map.put("created_at", m.getCreatedAt());
-      map.put("read_at", m.getReadAt());
+  /** The full reply tree containing {@code id}, oldest first, with each message's depth below the root. */
+  @GetMapping(value = "/{id}/thread", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE})
+  public ResponseEntity<?> thread(@PathVariable String id) {
+    Optional<Message> found = messageRepository.findById(id);
+    if (found.isEmpty()) return ResponseEntity.notFound().build();
+    String rootId = rootOf(found.get());
+    List<Message> msgs = messageRepository.findThread(rootId);
 
-      if (m.getFromUserId() != null) {
-        User fu = userCache.computeIfAbsent(m.getFromUserId(), id -> userRepository.findById(id).orElse(null));
-        if (fu != null) map.put("from_user", Map.of("full_name", fu.getFullName(), "role", fu.getRole(), "badge_number", fu.getBadgeNumber()));
-      }
-      if (m.getToUserId() != null) {
-        User tu = userCache.computeIfAbsent(m.getToUserId(), id -> userRepository.findById(id).orElse(null));
-        if (tu != null) map.put("to_user", Map.of("full_name", tu.getFullName(), "role", tu.getRole(), "badge_number", tu.getBadgeNumber()));
-      }
-      if (m.getContrabandId() != null) {
-        ContrabandItem ci = contrabandCache.computeIfAbsent(m.getContrabandId(), id -> contrabandRepository.findById(id).orElse(null));
-        if (ci != null) map.put("contraband", Map.of("seizure_number", ci.getSeizureNumber(), "item_name", ci.getItemName()));
+    Map<String, String> parentOf = new HashMap<>();
+    msgs.forEach(m -> parentOf.put(m.getId(), m.getParentMessageId()));
+    List<Map<String, Object>> response = toResponse(msgs);
+    for (Map<String, Object> m : response) {
+      int depth = 0;
+      String parent = parentOf.get((String) m.get("id"));
+      while (parent != null && parentOf.containsKey(parent) && depth < msgs.size()) {
+        depth++;
+        parent = parentOf.get(parent);
       }
-      result.add(map);
+      m.put("depth", depth);
     }
-    return result;
+    return ResponseEntity.ok(Map.of("root_id", rootId, "messages", response));
+  }
+
+  private List<Map<String, Object>> toResponse(List<Message> msgs) {
+    return messageViews.of(msgs);
   }
 
   @PostMapping
+  @Transactional
   public ResponseEntity<?> send(@RequestBody Map<String, Object> body, Authentication auth) {
     Message m = new Message();
+    String parentId = (String) body.get("parent_message_id");
+    if (parentId != null) {
+      Optional<Message> parent = messageRepository.findById(parentId);
+      if (parent.isEmpty()) return ResponseEntity.badRequest().body(Map.of("error", "Unknown parent message: " + parentId));
+      m.setParentMessageId(parentId);
+      m.setThreadRootId(rootOf(parent.get()));
+    } else {
+      m.setThreadRootId(m.getId());
+    }
     m.setFromUserId((String) body.getOrDefault("from_user_id", auth != null ? (String) auth.getPrincipal() : null));
     m.setToUserId((String) body.get("to_user_id"));
     m.setSubject((String) body.get("subject"));
@@ -76,16 +81,58 @@ public class MessageController {
     m.setContrabandId((String) body.get("contraband_id"));
     m.setRequiresResponse(Boolean.parseBoolean(String.valueOf(body.getOrDefault("requires_response", false))));
     messageRepository.save(m);
-    return ResponseEntity.ok(Map.of("id", m.getId()));
+    changeLog.upserted(ChangeLog.MESSAGES, m.getId());
+    return ResponseEntity.ok(Map.of("id", m.getId(), "thread_root_id", m.getThreadRootId()));
+  }
+
+  /** Messages written before threading have no stored root; walk up their parents instead. */
+  private String rootOf(Message m) {
+    if (m.getThreadRootId() != null) return m.getThreadRootId();
+    Message current = m;
+    Set<String> seen = new HashSet<>();
+    while (current.getParentMessageId() != null && seen.add(current.getId())) {
+      Optional<Message> parent = messageRepository.findById(current.getParentMessageId());
+      if (parent.isEmpty()) break;
+      current = parent.get();
+      if (current.getThreadRootId() != null) return current.getThreadRootId();
+    }
+    return current.getId();
   }
 
   @PatchMapping("/{id}/read")
+  @Transactional
   public ResponseEntity<?> markRead(@PathVariable String id) {
-    return messageRepository.findById(id).map(m -> {
-      m.setRead(true);
-      m.setReadAt(Instant.now());
-      messageRepository.save(m);
+    if (messageRepository.markRead(List.of(id), Instant.now()) > 0) {
+      changeLog.upserted(ChangeLog.MESSAGES, id);
       return ResponseEntity.ok().build();
-    }).orElse(ResponseEntity.notFound().build());
+    }
+    return messageRepository.existsById(id) ? ResponseEntity.ok().build() : ResponseEntity.notFound().build();
+  }
+
+  /**
+   * Marks the caller's unread messages as read: the listed {@code ids}, or every one with {@code all: true}.
+   * One set-based UPDATE stamps them with this request's read time, and the change log gets the IDs carrying
+   * that stamp, read back in the same transaction.
+   */
+  @PatchMapping("/read")
+  @Transactional
+  public ResponseEntity<?> markReadBatch(@RequestBody Map<String, Object> body, Authentication auth) {
+    if (auth == null) return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+    String userId = (String) auth.getPrincipal();
+    // Stored timestamps keep microseconds; truncate so the read-back matches what the UPDATE wrote.
+    Instant now = Instant.now().truncatedTo(ChronoUnit.MICROS);
+    int updated;
+    if (Boolean.TRUE.equals(body.get("all"))) {
+      updated = messageRepository.markAllRead(userId, now);
+    } else if (body.get("ids") instanceof List<?> l && !l.isEmpty()) {
+      if (l.size() > MARK_READ_CHUNK) {
+        return ResponseEntity.badRequest().body(Map.of("error", "At most " + MARK_READ_CHUNK + " ids per request; use all"));
+      }
+      updated = messageRepository.markRead(userId, l.stream().map(String::valueOf).toList(), now);
+    } else {
+      return ResponseEntity.badRequest().body(Map.of("error", "Provide ids or all: true"));
+    }
+    if (updated > 0) changeLog.upserted(ChangeLog.MESSAGES, messageRepository.findIdsReadAt(userId, now));
+    return ResponseEntity.ok(Map.of("updated", updated));
   }
-}
\ No newline at end of file
+}
@@ -1,9 +1,48 @@
 package com.cms.message;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 
 public interface MessageRepository extends JpaRepository<Message, String> {
   List<Message> findByFromUserIdOrToUserIdOrderByCreatedAtDesc(String fromUserId, String toUserId);
-}
\ No newline at end of file
+
+  /** Messages about an item strictly before ({@code before}, {@code beforeId}) in (createdAt, id) order, newest first. */
+  @Query("select m from Message m where m.contrabandId = :contrabandId "
+      + "and (m.createdAt < :before or (m.createdAt = :before and m.id < :beforeId)) "
+      + "order by m.createdAt desc, m.id desc")
+  List<Message> findPageBefore(@Param("contrabandId") String contrabandId, @Param("before") Instant before,
+                               @Param("beforeId") String beforeId, Pageable pageable);
+
+  /** The whole reply tree under {@code rootId}, root included, oldest first, from the thread_root_id index. */
+  @Query("select m from Message m where m.threadRootId = :rootId order by m.createdAt, m.id")
+  List<Message> findThread(@Param("rootId") String rootId);
+
+  @Modifying(flushAutomatically = true, clearAutomatically = true)
+  @Transactional
+  @Query("update Message m set m.isRead = true, m.readAt = :readAt where m.id in :ids and m.isRead = false")
+  int markRead(@Param("ids") Collection<String> ids, @Param("readAt") Instant readAt);
+
+  @Modifying(flushAutomatically = true, clearAutomatically = true)
+  @Query("update Message m set m.isRead = true, m.readAt = :readAt where m.toUserId = :userId and m.isRead = false")
+  int markAllRead(@Param("userId") String userId, @Param("readAt") Instant readAt);
+
+  @Modifying(flushAutomatically = true, clearAutomatically = true)
+  @Query("update Message m set m.isRead = true, m.readAt = :readAt "
+      + "where m.toUserId = :userId and m.isRead = false and m.id in :ids")
+  int markRead(@Param("userId") String userId, @Param("ids") Collection<String> ids, @Param("readAt") Instant readAt);
+
+  /**
+   * The caller's messages stamped {@code readAt}. Read in the transaction that ran one of the updates above, it
+   * covers every row that update changed: those rows stay locked until commit.
+   */
+  @Query("select m.id from Message m where m.toUserId = :userId and m.readAt = :readAt")
+  List<String> findIdsReadAt(@Param("userId") String userId, @Param("readAt") Instant readAt);
+}
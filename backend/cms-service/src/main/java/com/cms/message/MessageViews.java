@@ -0,0 +1,74 @@
+package com.cms.message;
+
+import com.cms.contraband.ContrabandItem;
+import com.cms.contraband.ContrabandRepository;
+import com.cms.user.User;
+import com.cms.user.UserRepository;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+/**
+ * The snake_case message payload served by {@code /messages} and {@code /sync}, with both users and the linked item
+ * filled in from one batched lookup each.
+ */
+@Component
+public class MessageViews {
+  private final UserRepository userRepository;
+  private final ContrabandRepository contrabandRepository;
+
+  public MessageViews(UserRepository userRepository, ContrabandRepository contrabandRepository) {
+    this.userRepository = userRepository;
+    this.contrabandRepository = contrabandRepository;
+  }
+
+  public List<Map<String, Object>> of(List<Message> msgs) {
+    Set<String> userIds = new HashSet<>();
+    Set<String> contrabandIds = new HashSet<>();
+    for (Message m : msgs) {
+      if (m.getFromUserId() != null) userIds.add(m.getFromUserId());
+      if (m.getToUserId() != null) userIds.add(m.getToUserId());
+      if (m.getContrabandId() != null) contrabandIds.add(m.getContrabandId());
+    }
+    Map<String, User> users = new HashMap<>();
+    userRepository.findAllById(userIds).forEach(u -> users.put(u.getId(), u));
+    Map<String, ContrabandItem> items = new HashMap<>();
+    contrabandRepository.findAllById(contrabandIds).forEach(i -> items.put(i.getId(), i));
+
+    List<Map<String, Object>> result = new ArrayList<>();
+    for (Message m : msgs) {
+      Map<String, Object> map = new LinkedHashMap<>();
+      map.put("id", m.getId());
+      map.put("from_user_id", m.getFromUserId());
+      map.put("to_user_id", m.getToUserId());
+      map.put("subject", m.getSubject());
+      map.put("content", m.getContent());
+      map.put("priority", m.getPriority());
+      map.put("message_type", m.getMessageType());
+      map.put("contraband_id", m.getContrabandId());
+      map.put("is_read", m.isRead());
+      map.put("requires_response", m.isRequiresResponse());
+      map.put("parent_message_id", m.getParentMessageId());
+      map.put("thread_root_id", m.getThreadRootId());
+      map.put("created_at", m.getCreatedAt());
+      map.put("read_at", m.getReadAt());
+
+      User fu = m.getFromUserId() != null ? users.get(m.getFromUserId()) : null;
+      if (fu != null) map.put("from_user", person(fu));
+      User tu = m.getToUserId() != null ? users.get(m.getToUserId()) : null;
+      if (tu != null) map.put("to_user", person(tu));
+      ContrabandItem ci = m.getContrabandId() != null ? items.get(m.getContrabandId()) : null;
+      if (ci != null) map.put("contraband", Map.of("seizure_number", ci.getSeizureNumber(), "item_name", ci.getItemName()));
+      result.add(map);
+    }
+    return result;
+  }
+
+  private static Map<String, Object> person(User u) {
+    Map<String, Object> view = new LinkedHashMap<>();
+    view.put("full_name", u.getFullName());
+    view.put("role", u.getRole());
+    view.put("badge_number", u.getBadgeNumber());
+    return view;
+  }
+}
@@ -0,0 +1,22 @@
+package com.cms.scheduling;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+
+@Entity
+@Table(name = "job_locks")
+public class JobLock {
+  @Id
+  private String name;
+  @Column(nullable = false)
+  private Instant lockedUntil;
+  @Column(nullable = false)
+  private String lockedBy;
+
+  public String getName() { return name; }
+  public void setName(String name) { this.name = name; }
+  public Instant getLockedUntil() { return lockedUntil; }
+  public void setLockedUntil(Instant lockedUntil) { this.lockedUntil = lockedUntil; }
+  public String getLockedBy() { return lockedBy; }
+  public void setLockedBy(String lockedBy) { this.lockedBy = lockedBy; }
+}
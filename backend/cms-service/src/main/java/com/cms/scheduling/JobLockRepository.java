@@ -0,0 +1,19 @@
+package com.cms.scheduling;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+
+public interface JobLockRepository extends JpaRepository<JobLock, String> {
+  @Modifying
+  @Query("update JobLock l set l.lockedUntil = :until, l.lockedBy = :owner where l.name = :name and l.lockedUntil <= :now")
+  int acquire(@Param("name") String name, @Param("owner") String owner,
+              @Param("now") Instant now, @Param("until") Instant until);
+
+  @Modifying
+  @Query("update JobLock l set l.lockedUntil = :until where l.name = :name and l.lockedBy = :owner")
+  int release(@Param("name") String name, @Param("owner") String owner, @Param("until") Instant until);
+}
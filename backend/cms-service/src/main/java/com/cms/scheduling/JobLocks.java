@@ -0,0 +1,66 @@
+package com.cms.scheduling;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Cluster-wide leases for scheduled jobs, kept in {@code job_locks}. Every instance fires the same cron, and only
+ * the one that takes the lease runs the job. The lease must outlast the longest run: it only expires on its own
+ * when the holder died without handing it back.
+ */
+@Component
+public class JobLocks {
+  public static final String AUDIT_ARCHIVE = "audit-archive";
+  public static final String ITEM_ARCHIVE = "item-archive";
+  public static final String EVIDENCE_SCRUB = "evidence-scrub";
+
+  private static final Logger log = LoggerFactory.getLogger(JobLocks.class);
+
+  private final JobLockRepository repository;
+  private final TransactionTemplate tx;
+  private final Duration lease;
+  private final String owner = ManagementFactory.getRuntimeMXBean().getName() + "/" + UUID.randomUUID();
+
+  public JobLocks(JobLockRepository repository, PlatformTransactionManager transactionManager,
+                  @Value("${app.scheduling.lock-lease:PT6H}") Duration lease) {
+    this.repository = repository;
+    this.tx = new TransactionTemplate(transactionManager);
+    this.tx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    this.lease = lease;
+  }
+
+  /** Runs {@code job} if no other instance holds {@code name}; returns whether it ran. */
+  public boolean runExclusively(String name, Runnable job) {
+    return runExclusively(name, lease, Duration.ZERO, job);
+  }
+
+  /**
+   * Like {@link #runExclusively(String, Runnable)} with its own {@code lease}, and the lock kept for
+   * {@code cooldown} after the job ends. A periodic job every instance tries then runs once per period in the
+   * cluster instead of once per instance.
+   */
+  public boolean runExclusively(String name, Duration lease, Duration cooldown, Runnable job) {
+    Instant now = Instant.now();
+    Integer taken = tx.execute(s -> repository.acquire(name, owner, now, now.plus(lease)));
+    if (taken == null || taken == 0) {
+      log.debug("Skipping {}: another instance holds the lock", name);
+      return false;
+    }
+    try {
+      job.run();
+      return true;
+    } finally {
+      tx.executeWithoutResult(s -> repository.release(name, owner, Instant.now().plus(cooldown)));
+    }
+  }
+}
@@ -0,0 +1,121 @@
+package com.cms.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Admission control in front of the controllers. A request first spends a token from its endpoint budget, keyed by
+ * user ID or client IP (429 when empty), then needs a slot under the adaptive concurrency limit (503 when full).
+ * Both rejections carry Retry-After and are counted under {@code cms.admission.rejected}. A finished request feeds
+ * its latency to the limit against its budget's target, unless the budget opts out of sampling.
+ */
+class AdmissionFilter extends OncePerRequestFilter {
+  private static final AntPathMatcher PATHS = new AntPathMatcher();
+
+  private record Rule(AdmissionProperties.Budget budget, TokenBucketLimiter limiter, long latencyTargetNanos) {}
+
+  private final List<Rule> rules = new ArrayList<>();
+  private final Rule defaultRule;
+  private final ConcurrencyLimiter concurrency;
+  private final MeterRegistry registry;
+  private final ConcurrentHashMap<String, Counter> rejections = new ConcurrentHashMap<>();
+
+  AdmissionFilter(AdmissionProperties properties, MeterRegistry registry) {
+    for (AdmissionProperties.Budget b : properties.getBudgets()) rules.add(rule(b, properties.getConcurrency()));
+    this.defaultRule = rule(properties.getDefaultBudget(), properties.getConcurrency());
+    this.concurrency = new ConcurrencyLimiter(properties.getConcurrency());
+    this.registry = registry;
+    Gauge.builder("cms.admission.concurrency.limit", concurrency, ConcurrencyLimiter::limit).register(registry);
+    Gauge.builder("cms.admission.concurrency.in_flight", concurrency, ConcurrencyLimiter::inFlight).register(registry);
+  }
+
+  @Override
+  protected boolean shouldNotFilter(HttpServletRequest request) {
+    String path = request.getServletPath();
+    return path.equals("/health") || path.startsWith("/actuator/") || "OPTIONS".equals(request.getMethod());
+  }
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+      throws ServletException, IOException {
+    Rule rule = match(request);
+    long waitNanos = rule.limiter().tryAcquire(clientKey(rule.budget(), request));
+    if (waitNanos > 0) {
+      reject(response, HttpStatus.TOO_MANY_REQUESTS, rule.budget().getName(), "rate_limit",
+          Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L)));
+      return;
+    }
+    if (!concurrency.tryAcquire()) {
+      reject(response, HttpStatus.SERVICE_UNAVAILABLE, rule.budget().getName(), "overload", 1);
+      return;
+    }
+    long start = System.nanoTime();
+    try {
+      filterChain.doFilter(request, response);
+    } finally {
+      if (rule.budget().isSampleLatency()) {
+        concurrency.release(System.nanoTime() - start, rule.latencyTargetNanos());
+      } else {
+        concurrency.release();
+      }
+    }
+  }
+
+  private static Rule rule(AdmissionProperties.Budget budget, AdmissionProperties.Concurrency concurrency) {
+    Duration target = budget.getLatencyTarget() != null ? budget.getLatencyTarget() : concurrency.getLatencyTarget();
+    return new Rule(budget, new TokenBucketLimiter(budget.getRatePerSecond(), budget.getBurst()), target.toNanos());
+  }
+
+  private Rule match(HttpServletRequest request) {
+    String path = request.getServletPath();
+    for (Rule r : rules) {
+      String method = r.budget().getMethod();
+      if ((method == null || method.equalsIgnoreCase(request.getMethod())) && PATHS.match(r.budget().getPath(), path)) {
+        return r;
+      }
+    }
+    return defaultRule;
+  }
+
+  private static String clientKey(AdmissionProperties.Budget budget, HttpServletRequest request) {
+    if (budget.getKey() == AdmissionProperties.KeyBy.USER) {
+      Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+      if (auth != null && auth.getPrincipal() instanceof String userId) return "u:" + userId;
+    }
+    // Behind a trusted proxy Tomcat's RemoteIpValve (server.forward-headers-strategy) has already put the
+    // X-Forwarded-For client here.
+    return "ip:" + request.getRemoteAddr();
+  }
+
+  private void reject(HttpServletResponse response, HttpStatus status, String budget, String reason, long retryAfterSeconds)
+      throws IOException {
+    rejections.computeIfAbsent(budget + "|" + reason, k -> Counter.builder("cms.admission.rejected")
+        .tag("budget", budget)
+        .tag("reason", reason)
+        .register(registry)).increment();
+    response.setStatus(status.value());
+    response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+    response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+    response.getWriter().write("{\"error\":\"" + (status == HttpStatus.TOO_MANY_REQUESTS
+        ? "Too many requests" : "Server busy") + "\"}");
+  }
+}
@@ -0,0 +1,82 @@
+package com.cms.security;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@ConfigurationProperties(prefix = "app.admission")
+public class AdmissionProperties {
+  private boolean enabled = true;
+  /** Applied to every request no specific budget matches. */
+  private Budget defaultBudget = new Budget();
+  /** Checked in order; the first whose method and path match wins. */
+  private List<Budget> budgets = new ArrayList<>();
+  private Concurrency concurrency = new Concurrency();
+
+  public enum KeyBy { USER, IP }
+
+  public static class Budget {
+    private String name = "default";
+    /** Ant-style pattern relative to the context path. */
+    private String path = "/**";
+    /** Null matches every method. */
+    private String method;
+    private double ratePerSecond = 50;
+    private int burst = 100;
+    /** USER falls back to the client IP for unauthenticated requests. */
+    private KeyBy key = KeyBy.USER;
+    /** Latency target for these requests; null uses the concurrency default. */
+    private Duration latencyTarget;
+    /**
+     * Whether these requests' latency steers the concurrency limit. Turn off for streaming and bulk endpoints, whose
+     * duration follows payload size and client bandwidth rather than server load.
+     */
+    private boolean sampleLatency = true;
+
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+    public String getPath() { return path; }
+    public void setPath(String path) { this.path = path; }
+    public String getMethod() { return method; }
+    public void setMethod(String method) { this.method = method; }
+    public double getRatePerSecond() { return ratePerSecond; }
+    public void setRatePerSecond(double ratePerSecond) { this.ratePerSecond = ratePerSecond; }
+    public int getBurst() { return burst; }
+    public void setBurst(int burst) { this.burst = burst; }
+    public KeyBy getKey() { return key; }
+    public void setKey(KeyBy key) { this.key = key; }
+    public Duration getLatencyTarget() { return latencyTarget; }
+    public void setLatencyTarget(Duration latencyTarget) { this.latencyTarget = latencyTarget; }
+    public boolean isSampleLatency() { return sampleLatency; }
+    public void setSampleLatency(boolean sampleLatency) { this.sampleLatency = sampleLatency; }
+  }
+
+  public static class Concurrency {
+    private int initialLimit = 40;
+    private int minLimit = 8;
+    /** Keep below the servlet thread pool so shedding starts before it is exhausted. */
+    private int maxLimit = 150;
+    /** Requests slower than this shrink the limit; faster ones let it grow. Budgets may set their own. */
+    private Duration latencyTarget = Duration.ofMillis(500);
+
+    public int getInitialLimit() { return initialLimit; }
+    public void setInitialLimit(int initialLimit) { this.initialLimit = initialLimit; }
+    public int getMinLimit() { return minLimit; }
+    public void setMinLimit(int minLimit) { this.minLimit = minLimit; }
+    public int getMaxLimit() { return maxLimit; }
+    public void setMaxLimit(int maxLimit) { this.maxLimit = maxLimit; }
+    public Duration getLatencyTarget() { return latencyTarget; }
+    public void setLatencyTarget(Duration latencyTarget) { this.latencyTarget = latencyTarget; }
+  }
+
+  public boolean isEnabled() { return enabled; }
+  public void setEnabled(boolean enabled) { this.enabled = enabled; }
+  public Budget getDefaultBudget() { return defaultBudget; }
+  public void setDefaultBudget(Budget defaultBudget) { this.defaultBudget = defaultBudget; }
+  public List<Budget> getBudgets() { return budgets; }
+  public void setBudgets(List<Budget> budgets) { this.budgets = budgets; }
+  public Concurrency getConcurrency() { return concurrency; }
+  public void setConcurrency(Concurrency concurrency) { this.concurrency = concurrency; }
+}
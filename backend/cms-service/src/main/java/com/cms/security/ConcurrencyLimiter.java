@@ -0,0 +1,56 @@
+package com.cms.security;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caps requests in flight with an AIMD limit: each sampled request finishing under its latency target adds 1/limit,
+ * each one over it cuts the limit by 10%. Unsampled requests (streams, bulk work) hold a slot but leave the limit alone. Queueing in the DB pool shows up as latency well before threads run out, so the
+ * limit drops and excess requests are shed instead of piling up.
+ */
+class ConcurrencyLimiter {
+  private static final double BACKOFF = 0.9;
+
+  private final AtomicInteger inFlight = new AtomicInteger();
+  private final AtomicLong limitBits;
+  private final double minLimit;
+  private final double maxLimit;
+
+  ConcurrencyLimiter(AdmissionProperties.Concurrency config) {
+    this.minLimit = config.getMinLimit();
+    this.maxLimit = Math.max(config.getMinLimit(), config.getMaxLimit());
+    double initial = Math.min(maxLimit, Math.max(minLimit, config.getInitialLimit()));
+    this.limitBits = new AtomicLong(Double.doubleToLongBits(initial));
+  }
+
+  boolean tryAcquire() {
+    if (inFlight.incrementAndGet() <= (int) limit()) return true;
+    inFlight.decrementAndGet();
+    return false;
+  }
+
+  /** Frees the slot without adjusting the limit. */
+  void release() {
+    inFlight.decrementAndGet();
+  }
+
+  void release(long latencyNanos, long latencyTargetNanos) {
+    inFlight.decrementAndGet();
+    while (true) {
+      long bits = limitBits.get();
+      double current = Double.longBitsToDouble(bits);
+      double next = latencyNanos > latencyTargetNanos
+          ? Math.max(minLimit, current * BACKOFF)
+          : Math.min(maxLimit, current + 1.0 / current);
+      if (next == current || limitBits.compareAndSet(bits, Double.doubleToLongBits(next))) return;
+    }
+  }
+
+  double limit() {
+    return Double.longBitsToDouble(limitBits.get());
+  }
+
+  int inFlight() {
+    return inFlight.get();
+  }
+}
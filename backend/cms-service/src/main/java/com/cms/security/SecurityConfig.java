@@ -1,9 +1,11 @@
 package com.cms.security;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -21,12 +23,17 @@ import java.util.List;
 import java.util.Map;
 
 @Configuration
+@EnableConfigurationProperties(AdmissionProperties.class)
 public class SecurityConfig {
 
   private final JwtService jwtService;
+  private final AdmissionProperties admissionProperties;
+  private final MeterRegistry meterRegistry;
 
-  public SecurityConfig(JwtService jwtService) {
+  public SecurityConfig(JwtService jwtService, AdmissionProperties admissionProperties, MeterRegistry meterRegistry) {
     this.jwtService = jwtService;
+    this.admissionProperties = admissionProperties;
+    this.meterRegistry = meterRegistry;
   }
 
   @Bean
@@ -38,11 +45,14 @@ public class SecurityConfig {
         .authorizeHttpRequests(auth -> auth
             .requestMatchers(HttpMethod.POST, "/auth/login").permitAll()
             .requestMatchers(HttpMethod.POST, "/auth/register").permitAll()
-            .requestMatchers(HttpMethod.GET, "/health").permitAll()
+            .requestMatchers(HttpMethod.GET, "/health", "/actuator/health").permitAll()
             .requestMatchers("/files/**").permitAll()
             .anyRequest().authenticated()
         )
         .addFilterBefore(new JwtAuthFilter(jwtService), UsernamePasswordAuthenticationFilter.class);
+    if (admissionProperties.isEnabled()) {
+      http.addFilterAfter(new AdmissionFilter(admissionProperties, meterRegistry), JwtAuthFilter.class);
+    }
     return http.build();
   }
 
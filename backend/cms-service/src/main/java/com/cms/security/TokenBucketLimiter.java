@@ -0,0 +1,46 @@
+package com.cms.security;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket per key in GCRA form: each bucket is one theoretical-arrival time updated by CAS, so callers never
+ * lock and different keys never contend. Buckets that have fully refilled hold no state worth keeping and are swept.
+ */
+class TokenBucketLimiter {
+  private static final long SWEEP_INTERVAL_NANOS = 60_000_000_000L;
+
+  private final long emissionIntervalNanos;
+  private final long toleranceNanos;
+  private final ConcurrentHashMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+  private final AtomicLong nextSweep = new AtomicLong(System.nanoTime() + SWEEP_INTERVAL_NANOS);
+
+  TokenBucketLimiter(double ratePerSecond, int burst) {
+    this.emissionIntervalNanos = Math.max(1, (long) (1_000_000_000L / ratePerSecond));
+    this.toleranceNanos = emissionIntervalNanos * Math.max(0, burst - 1);
+  }
+
+  /** Takes one token for {@code key}; returns 0 when granted, otherwise the nanoseconds until one is available. */
+  long tryAcquire(String key) {
+    long now = System.nanoTime();
+    sweepIfDue(now);
+    AtomicLong tat = buckets.computeIfAbsent(key, k -> new AtomicLong(now));
+    while (true) {
+      long current = tat.get();
+      long base = current - now > 0 ? current : now;
+      long allowAt = base - toleranceNanos;
+      if (allowAt - now > 0) return allowAt - now;
+      if (tat.compareAndSet(current, base + emissionIntervalNanos)) return 0;
+    }
+  }
+
+  int size() {
+    return buckets.size();
+  }
+
+  private void sweepIfDue(long now) {
+    long due = nextSweep.get();
+    if (now - due < 0 || !nextSweep.compareAndSet(due, now + SWEEP_INTERVAL_NANOS)) return;
+    buckets.values().removeIf(tat -> tat.get() - now <= 0);
+  }
+}
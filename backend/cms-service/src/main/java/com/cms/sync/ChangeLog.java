@@ -0,0 +1,56 @@
+package com.cms.sync;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Appends to the change log that drives {@code /sync}. Entries are inserted in the caller's transaction, so they
+ * commit or roll back with the rows they describe. Their sync position ({@code commit_seq}) is assigned after
+ * commit by {@link ChangeLogSequencer}, so a reader never sees a position before a lower one that is still in
+ * flight.
+ */
+@Component
+public class ChangeLog {
+  public static final String ITEMS = "contraband_items";
+  public static final String CUSTODY = "custody_chain";
+  public static final String MESSAGES = "messages";
+  public static final String CATEGORIES = "contraband_categories";
+
+  private final ChangeLogRepository changeLogRepository;
+  private final ChangeLogSequencer sequencer;
+
+  public ChangeLog(ChangeLogRepository changeLogRepository, ChangeLogSequencer sequencer) {
+    this.changeLogRepository = changeLogRepository;
+    this.sequencer = sequencer;
+  }
+
+  @Transactional(propagation = Propagation.MANDATORY)
+  public void upserted(String entityType, String entityId) {
+    record(List.of(new ChangeLogEntry(entityType, entityId, ChangeLogEntry.UPSERT)));
+  }
+
+  @Transactional(propagation = Propagation.MANDATORY)
+  public void upserted(String entityType, Collection<String> entityIds) {
+    record(entityIds.stream().map(id -> new ChangeLogEntry(entityType, id, ChangeLogEntry.UPSERT)).toList());
+  }
+
+  @Transactional(propagation = Propagation.MANDATORY)
+  public void deleted(String entityType, Collection<String> entityIds) {
+    record(entityIds.stream().map(id -> new ChangeLogEntry(entityType, id, ChangeLogEntry.DELETE)).toList());
+  }
+
+  private void record(List<ChangeLogEntry> entries) {
+    if (entries.isEmpty()) return;
+    changeLogRepository.saveAll(entries);
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCommit() { sequencer.requestRun(); }
+    });
+  }
+}
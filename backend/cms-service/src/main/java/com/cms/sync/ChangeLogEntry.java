@@ -0,0 +1,44 @@
+package com.cms.sync;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+
+@Entity
+@Table(name = "change_log")
+public class ChangeLogEntry {
+  public static final String UPSERT = "upsert";
+  public static final String DELETE = "delete";
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private Long seq;
+  @Column(nullable = false)
+  private String entityType;
+  @Column(nullable = false)
+  private String entityId;
+  @Column(nullable = false)
+  private String operation; // upsert, delete
+  private Instant changedAt = Instant.now();
+  private Long commitSeq; // null until ChangeLogSequencer orders the committed row
+
+  public ChangeLogEntry() {}
+
+  public ChangeLogEntry(String entityType, String entityId, String operation) {
+    this.entityType = entityType;
+    this.entityId = entityId;
+    this.operation = operation;
+  }
+
+  public Long getSeq() { return seq; }
+  public void setSeq(Long seq) { this.seq = seq; }
+  public String getEntityType() { return entityType; }
+  public void setEntityType(String entityType) { this.entityType = entityType; }
+  public String getEntityId() { return entityId; }
+  public void setEntityId(String entityId) { this.entityId = entityId; }
+  public String getOperation() { return operation; }
+  public void setOperation(String operation) { this.operation = operation; }
+  public Long getCommitSeq() { return commitSeq; }
+  public void setCommitSeq(Long commitSeq) { this.commitSeq = commitSeq; }
+  public Instant getChangedAt() { return changedAt; }
+  public void setChangedAt(Instant changedAt) { this.changedAt = changedAt; }
+}
@@ -0,0 +1,25 @@
+package com.cms.sync;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface ChangeLogRepository extends JpaRepository<ChangeLogEntry, Long> {
+  List<ChangeLogEntry> findByCommitSeqGreaterThanOrderByCommitSeqAsc(long commitSeq, Pageable pageable);
+
+  List<ChangeLogEntry> findByCommitSeqIsNullOrderBySeqAsc(Pageable pageable);
+
+  @Query("select coalesce(max(e.commitSeq), 0) from ChangeLogEntry e")
+  long maxSeq();
+
+  @Query(value = "SELECT last_seq FROM change_log_sequencer WHERE id = 1 FOR UPDATE", nativeQuery = true)
+  long lockSequencer();
+
+  @Modifying
+  @Query(value = "UPDATE change_log_sequencer SET last_seq = :lastSeq WHERE id = 1", nativeQuery = true)
+  int updateSequencer(@Param("lastSeq") long lastSeq);
+}
@@ -0,0 +1,72 @@
+package com.cms.sync;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Gives committed change-log rows their {@code commit_seq}. Each run locks the single change_log_sequencer row,
+ * numbers the rows it can see that have no position yet, and commits. Runs on every instance are therefore
+ * serialised, and positions become visible in increasing order. Writers only queue a run after their commit, and
+ * a periodic sweep picks up rows whose run never happened, for example after a crash.
+ */
+@Component
+public class ChangeLogSequencer {
+  private static final Logger log = LoggerFactory.getLogger(ChangeLogSequencer.class);
+  private static final int BATCH_SIZE = 1000;
+
+  private final ChangeLogRepository changeLogRepository;
+  private final TransactionTemplate tx;
+  private final ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+    Thread t = new Thread(r, "change-log-sequencer");
+    t.setDaemon(true);
+    return t;
+  });
+  private final AtomicBoolean queued = new AtomicBoolean();
+
+  public ChangeLogSequencer(ChangeLogRepository changeLogRepository, PlatformTransactionManager transactionManager) {
+    this.changeLogRepository = changeLogRepository;
+    this.tx = new TransactionTemplate(transactionManager);
+  }
+
+  /** Queues a run without blocking the caller; requests made while one is queued share it. */
+  void requestRun() {
+    if (!queued.compareAndSet(false, true)) return;
+    executor.execute(() -> {
+      queued.set(false);
+      drain();
+    });
+  }
+
+  @Scheduled(fixedDelayString = "${app.sync.sequencer-sweep:PT1S}")
+  public void drain() {
+    try {
+      Integer sequenced;
+      do {
+        sequenced = tx.execute(status -> sequenceBatch());
+      } while (sequenced != null && sequenced == BATCH_SIZE);
+    } catch (RuntimeException e) {
+      log.warn("Change log sequencing failed; the next sweep retries", e);
+    }
+  }
+
+  private int sequenceBatch() {
+    long last = changeLogRepository.lockSequencer();
+    List<ChangeLogEntry> pending = changeLogRepository.findByCommitSeqIsNullOrderBySeqAsc(PageRequest.of(0, BATCH_SIZE));
+    if (pending.isEmpty()) return 0;
+    for (ChangeLogEntry e : pending) e.setCommitSeq(++last);
+    changeLogRepository.saveAll(pending);
+    changeLogRepository.flush();
+    changeLogRepository.updateSequencer(last);
+    return pending.size();
+  }
+}
@@ -0,0 +1,149 @@
+package com.cms.sync;
+
+import com.cms.contraband.CategoryRepository;
+import com.cms.contraband.ContrabandItemViews;
+import com.cms.contraband.ContrabandRepository;
+import com.cms.custody.CustodyRepository;
+import com.cms.custody.CustodyViews;
+import com.cms.message.Message;
+import com.cms.message.MessageRepository;
+import com.cms.message.MessageViews;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Delta sync for offline field devices. Without a token the caller gets a full snapshot and a token for the
+ * current head of the change log; with a token it gets only the rows changed since, plus tombstoned IDs. Rows are
+ * shaped exactly as the list endpoints serve them, so a device can store both the same way.
+ */
+@RestController
+@RequestMapping("/sync")
+public class SyncController {
+  private static final int MAX_LIMIT = 5000;
+
+  private final ChangeLogRepository changeLogRepository;
+  private final ContrabandRepository contrabandRepository;
+  private final CustodyRepository custodyRepository;
+  private final MessageRepository messageRepository;
+  private final CategoryRepository categoryRepository;
+  private final ContrabandItemViews itemViews;
+  private final CustodyViews custodyViews;
+  private final MessageViews messageViews;
+
+  public SyncController(ChangeLogRepository changeLogRepository, ContrabandRepository contrabandRepository,
+                        CustodyRepository custodyRepository, MessageRepository messageRepository,
+                        CategoryRepository categoryRepository, ContrabandItemViews itemViews,
+                        CustodyViews custodyViews, MessageViews messageViews) {
+    this.changeLogRepository = changeLogRepository;
+    this.contrabandRepository = contrabandRepository;
+    this.custodyRepository = custodyRepository;
+    this.messageRepository = messageRepository;
+    this.categoryRepository = categoryRepository;
+    this.itemViews = itemViews;
+    this.custodyViews = custodyViews;
+    this.messageViews = messageViews;
+  }
+
+  @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE})
+  public ResponseEntity<?> sync(@RequestParam(value = "token", required = false) String token,
+                                @RequestParam(value = "limit", defaultValue = "1000") int limit,
+                                Authentication auth) {
+    String userId = auth != null ? (String) auth.getPrincipal() : null;
+    if (token == null || token.isBlank()) return ResponseEntity.ok(snapshot(userId));
+
+    long since;
+    try {
+      since = decodeToken(token);
+    } catch (IllegalArgumentException e) {
+      return ResponseEntity.badRequest().body(Map.of("error", "Invalid sync token"));
+    }
+    if (since > changeLogRepository.maxSeq()) {
+      return ResponseEntity.status(HttpStatus.GONE).body(Map.of("error", "Sync token is no longer valid; request a full sync"));
+    }
+
+    int pageSize = Math.max(1, Math.min(limit, MAX_LIMIT));
+    List<ChangeLogEntry> entries = changeLogRepository.findByCommitSeqGreaterThanOrderByCommitSeqAsc(since, PageRequest.of(0, pageSize));
+
+    // Last operation per entity wins; an upsert followed by a delete is only a tombstone.
+    Map<String, Map<String, String>> latest = new HashMap<>();
+    for (ChangeLogEntry e : entries) {
+      latest.computeIfAbsent(e.getEntityType(), k -> new LinkedHashMap<>()).put(e.getEntityId(), e.getOperation());
+    }
+
+    Map<String, Object> changes = new LinkedHashMap<>();
+    Map<String, Object> deleted = new LinkedHashMap<>();
+    collect(ChangeLog.ITEMS, latest, changes, deleted,
+        ids -> new ArrayList<Object>(itemViews.of(contrabandRepository.findAllById(ids), false)));
+    collect(ChangeLog.CUSTODY, latest, changes, deleted,
+        ids -> new ArrayList<Object>(custodyViews.of(custodyRepository.findAllById(ids))));
+    collect(ChangeLog.CATEGORIES, latest, changes, deleted, ids -> new ArrayList<Object>(categoryRepository.findAllById(ids)));
+    collect(ChangeLog.MESSAGES, latest, changes, deleted, ids -> new ArrayList<Object>(messageViews.of(
+        messageRepository.findAllById(ids).stream().filter(m -> involves(m, userId)).toList())));
+
+    long next = entries.isEmpty() ? since : entries.get(entries.size() - 1).getCommitSeq();
+    Map<String, Object> response = new LinkedHashMap<>();
+    response.put("full", false);
+    response.put("changes", changes);
+    response.put("deleted", deleted);
+    response.put("next_token", encodeToken(next));
+    response.put("has_more", entries.size() == pageSize);
+    return ResponseEntity.ok(response);
+  }
+
+  private Map<String, Object> snapshot(String userId) {
+    // Read the head first: anything written during the snapshot is replayed on the next delta, which is harmless.
+    long head = changeLogRepository.maxSeq();
+    Map<String, Object> changes = new LinkedHashMap<>();
+    changes.put(ChangeLog.ITEMS, itemViews.of(contrabandRepository.findAll(), false));
+    changes.put(ChangeLog.CUSTODY, custodyViews.of(custodyRepository.findAll()));
+    changes.put(ChangeLog.CATEGORIES, categoryRepository.findAll());
+    changes.put(ChangeLog.MESSAGES, userId != null
+        ? messageViews.of(messageRepository.findByFromUserIdOrToUserIdOrderByCreatedAtDesc(userId, userId))
+        : List.of());
+
+    Map<String, Object> response = new LinkedHashMap<>();
+    response.put("full", true);
+    response.put("changes", changes);
+    response.put("deleted", Map.of());
+    response.put("next_token", encodeToken(head));
+    response.put("has_more", false);
+    return response;
+  }
+
+  private static void collect(String type, Map<String, Map<String, String>> latest, Map<String, Object> changes,
+                              Map<String, Object> deleted, Function<Set<String>, List<Object>> loader) {
+    Map<String, String> ops = latest.get(type);
+    if (ops == null) return;
+    Set<String> upserts = new LinkedHashSet<>();
+    List<String> tombstones = new ArrayList<>();
+    ops.forEach((id, op) -> {
+      if (ChangeLogEntry.DELETE.equals(op)) tombstones.add(id); else upserts.add(id);
+    });
+    if (!upserts.isEmpty()) changes.put(type, loader.apply(upserts));
+    if (!tombstones.isEmpty()) deleted.put(type, tombstones);
+  }
+
+  private static boolean involves(Message m, String userId) {
+    return userId != null && (userId.equals(m.getFromUserId()) || userId.equals(m.getToUserId()));
+  }
+
+  static String encodeToken(long seq) {
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(("v1." + seq).getBytes(StandardCharsets.UTF_8));
+  }
+
+  static long decodeToken(String token) {
+    String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+    if (!raw.startsWith("v1.")) throw new IllegalArgumentException("Unsupported token version");
+    long seq = Long.parseLong(raw.substring(3));
+    if (seq < 0) throw new IllegalArgumentException("Negative sequence");
+    return seq;
+  }
+}
@@ -0,0 +1,36 @@
+package com.cms.timeline;
+
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping
+public class ItemTimelineController {
+  private final ItemTimelineService itemTimelineService;
+
+  public ItemTimelineController(ItemTimelineService itemTimelineService) {
+    this.itemTimelineService = itemTimelineService;
+  }
+
+  @GetMapping(value = "/contraband-items/{id}/timeline", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE})
+  public ResponseEntity<?> timeline(@PathVariable String id,
+                                    @RequestParam(value = "cursor", required = false) String cursor,
+                                    @RequestParam(value = "limit", defaultValue = "50") int limit) {
+    try {
+      return itemTimelineService.page(id, cursor, limit)
+          .<ResponseEntity<?>>map(page -> {
+            Map<String, Object> body = new LinkedHashMap<>();
+            body.put("entries", page.entries());
+            body.put("next_cursor", page.nextCursor());
+            return ResponseEntity.ok(body);
+          })
+          .orElse(ResponseEntity.notFound().build());
+    } catch (IllegalArgumentException e) {
+      return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+    }
+  }
+}
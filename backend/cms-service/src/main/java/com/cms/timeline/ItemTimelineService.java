@@ -0,0 +1,244 @@
+package com.cms.timeline;
+
+import com.cms.archive.ArchivedItem;
+import com.cms.archive.ItemArchiveStore;
+import com.cms.audit.AuditLog;
+import com.cms.audit.AuditQueryService;
+import com.cms.contraband.ContrabandItem;
+import com.cms.contraband.ContrabandRepository;
+import com.cms.custody.CustodyRecord;
+import com.cms.custody.CustodyRepository;
+import com.cms.file.EvidenceFile;
+import com.cms.file.EvidenceFileRepository;
+import com.cms.message.Message;
+import com.cms.message.MessageRepository;
+import com.cms.user.User;
+import com.cms.user.UserRepository;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * One item's custody transfers, evidence uploads, messages and audit entries as a single stream, newest first.
+ * Each source is read with its own (item, time) index, limited to one page and positioned after the cursor. The
+ * four sorted lists are k-way merged, and the users on the page are loaded in one query. Entries are totally
+ * ordered by (time, source, id), so a cursor taken from the last entry resumes exactly where the page ended.
+ */
+@Service
+public class ItemTimelineService {
+  public static final int MAX_LIMIT = 200;
+
+  // Source order breaks ties between entries with the same timestamp.
+  private static final int CUSTODY = 0;
+  private static final int EVIDENCE = 1;
+  private static final int MESSAGE = 2;
+  private static final int AUDIT = 3;
+  // Item IDs are UUIDs, so these sort after and before every real ID.
+  private static final String AFTER_ALL_IDS = "~";
+  private static final String BEFORE_ALL_IDS = "";
+
+  private final ContrabandRepository contrabandRepository;
+  private final CustodyRepository custodyRepository;
+  private final EvidenceFileRepository evidenceFileRepository;
+  private final MessageRepository messageRepository;
+  private final AuditQueryService auditQueryService;
+  private final UserRepository userRepository;
+  private final ItemArchiveStore archiveStore;
+
+  public ItemTimelineService(ContrabandRepository contrabandRepository, CustodyRepository custodyRepository,
+                             EvidenceFileRepository evidenceFileRepository, MessageRepository messageRepository,
+                             AuditQueryService auditQueryService, UserRepository userRepository,
+                             ItemArchiveStore archiveStore) {
+    this.contrabandRepository = contrabandRepository;
+    this.custodyRepository = custodyRepository;
+    this.evidenceFileRepository = evidenceFileRepository;
+    this.messageRepository = messageRepository;
+    this.auditQueryService = auditQueryService;
+    this.userRepository = userRepository;
+    this.archiveStore = archiveStore;
+  }
+
+  public record Page(List<Map<String, Object>> entries, String nextCursor) {}
+
+  private record Cursor(Instant at, int source, String id) {
+    static final Cursor START = new Cursor(Instant.parse("9999-12-31T23:59:59Z"), Integer.MAX_VALUE, AFTER_ALL_IDS);
+
+    /** The id bound for a source's keyset query: rows at exactly {@code at} must sort below it. */
+    String idBoundFor(int s) {
+      if (s < source) return AFTER_ALL_IDS;
+      if (s > source) return BEFORE_ALL_IDS;
+      return id;
+    }
+  }
+
+  private record Entry(Instant at, int source, String id, Map<String, Object> data) {}
+
+  private static final Comparator<Entry> NEWEST_FIRST = Comparator.comparing(Entry::at)
+      .thenComparingInt(Entry::source)
+      .thenComparing(Entry::id)
+      .reversed();
+
+  /** Returns empty when the item exists in neither the live table nor the archive. */
+  public Optional<Page> page(String contrabandId, String cursorToken, int limit) {
+    int size = Math.max(1, Math.min(limit, MAX_LIMIT));
+    Cursor cursor = cursorToken == null || cursorToken.isBlank() ? Cursor.START : decode(cursorToken);
+
+    List<List<Entry>> sources = new ArrayList<>(4);
+    Pageable page = PageRequest.of(0, size);
+    Optional<ContrabandItem> live = contrabandRepository.findById(contrabandId);
+    Instant createdAt;
+    if (live.isPresent()) {
+      createdAt = live.get().getCreatedAt();
+      sources.add(custodyRepository.findPageBefore(contrabandId, cursor.at(), cursor.idBoundFor(CUSTODY), page)
+          .stream().map(ItemTimelineService::custodyEntry).toList());
+      sources.add(evidenceFileRepository.findPageBefore(contrabandId, cursor.at(), cursor.idBoundFor(EVIDENCE), page)
+          .stream().map(ItemTimelineService::evidenceEntry).toList());
+    } else {
+      Optional<ArchivedItem> archived = archiveStore.findById(contrabandId);
+      if (archived.isEmpty()) return Optional.empty();
+      createdAt = archived.get().item().getCreatedAt();
+      sources.add(afterCursor(archived.get().custody(), ItemTimelineService::custodyEntry, cursor, size));
+      sources.add(afterCursor(archived.get().evidence(), ItemTimelineService::evidenceEntry, cursor, size));
+    }
+    sources.add(messageRepository.findPageBefore(contrabandId, cursor.at(), cursor.idBoundFor(MESSAGE), page)
+        .stream().map(ItemTimelineService::messageEntry).toList());
+    // Audit rows come from the hot table and the cold segments, keyset-paged on (created_at, id) like the others.
+    sources.add(auditQueryService.findRecordPageBefore(contrabandId, createdAt != null ? createdAt : Instant.EPOCH,
+            cursor.at(), cursor.idBoundFor(AUDIT), size)
+        .stream().map(ItemTimelineService::auditEntry).toList());
+
+    List<Entry> merged = merge(sources, size);
+    enrichUsers(merged);
+    String next = null;
+    if (merged.size() == size) {
+      Entry last = merged.get(merged.size() - 1);
+      next = encode(new Cursor(last.at(), last.source(), last.id()));
+    }
+    return Optional.of(new Page(merged.stream().map(Entry::data).toList(), next));
+  }
+
+  private static List<Entry> merge(List<List<Entry>> sources, int limit) {
+    record Head(List<Entry> list, int index) {
+      Entry entry() { return list.get(index); }
+    }
+    PriorityQueue<Head> heads = new PriorityQueue<>(Comparator.comparing(Head::entry, NEWEST_FIRST));
+    for (List<Entry> s : sources) {
+      if (!s.isEmpty()) heads.add(new Head(s, 0));
+    }
+    List<Entry> out = new ArrayList<>(limit);
+    while (out.size() < limit && !heads.isEmpty()) {
+      Head h = heads.poll();
+      out.add(h.entry());
+      if (h.index() + 1 < h.list().size()) heads.add(new Head(h.list(), h.index() + 1));
+    }
+    return out;
+  }
+
+  private static <T> List<Entry> afterCursor(List<T> rows, Function<T, Entry> toEntry, Cursor cursor, int limit) {
+    Entry bound = new Entry(cursor.at(), cursor.source(), cursor.id(), null);
+    return rows.stream().map(toEntry)
+        .filter(e -> e.at() != null && NEWEST_FIRST.compare(e, bound) > 0)
+        .sorted(NEWEST_FIRST)
+        .limit(limit)
+        .toList();
+  }
+
+  private void enrichUsers(List<Entry> entries) {
+    Set<String> ids = new HashSet<>();
+    for (Entry e : entries) {
+      for (String key : List.of("user_id", "from_user_id", "to_user_id")) {
+        if (e.data().get(key) instanceof String id) ids.add(id);
+      }
+    }
+    if (ids.isEmpty()) return;
+    Map<String, Map<String, Object>> users = new HashMap<>();
+    for (User u : userRepository.findAllById(ids)) {
+      // Badge number (and on old rows the name) may be null, which Map.of rejects.
+      Map<String, Object> view = new LinkedHashMap<>();
+      view.put("full_name", u.getFullName());
+      view.put("badge_number", u.getBadgeNumber());
+      users.put(u.getId(), view);
+    }
+    for (Entry e : entries) {
+      putUser(e.data(), "user_id", "user", users);
+      putUser(e.data(), "from_user_id", "from_user", users);
+      putUser(e.data(), "to_user_id", "to_user", users);
+    }
+  }
+
+  private static void putUser(Map<String, Object> data, String idKey, String userKey, Map<String, Map<String, Object>> users) {
+    if (data.get(idKey) instanceof String id && users.containsKey(id)) data.put(userKey, users.get(id));
+  }
+
+  private static Entry custodyEntry(CustodyRecord r) {
+    Map<String, Object> m = base("custody", r.getId(), r.getTransferDate());
+    m.put("from_user_id", r.getFromUserId());
+    m.put("to_user_id", r.getToUserId());
+    m.put("transfer_reason", r.getTransferReason());
+    m.put("location", r.getLocation());
+    m.put("notes", r.getNotes());
+    return new Entry(r.getTransferDate(), CUSTODY, r.getId(), m);
+  }
+
+  private static Entry evidenceEntry(EvidenceFile f) {
+    Map<String, Object> m = base("evidence", f.getId(), f.getUploadedAt());
+    m.put("user_id", f.getUploadedBy());
+    m.put("file_name", f.getFileName());
+    m.put("file_type", f.getFileType());
+    m.put("file_size", f.getFileSize());
+    m.put("file_url", f.getFileUrl());
+    m.put("description", f.getDescription());
+    m.put("integrity_status", f.getIntegrityStatus());
+    return new Entry(f.getUploadedAt(), EVIDENCE, f.getId(), m);
+  }
+
+  private static Entry messageEntry(Message msg) {
+    Map<String, Object> m = base("message", msg.getId(), msg.getCreatedAt());
+    m.put("from_user_id", msg.getFromUserId());
+    m.put("to_user_id", msg.getToUserId());
+    m.put("subject", msg.getSubject());
+    m.put("content", msg.getContent());
+    m.put("priority", msg.getPriority());
+    m.put("message_type", msg.getMessageType());
+    m.put("parent_message_id", msg.getParentMessageId());
+    return new Entry(msg.getCreatedAt(), MESSAGE, msg.getId(), m);
+  }
+
+  private static Entry auditEntry(AuditLog a) {
+    Map<String, Object> m = base("audit", a.getId(), a.getCreatedAt());
+    m.put("user_id", a.getUserId());
+    m.put("action", a.getAction());
+    m.put("table_name", a.getTableName());
+    m.put("new_values", a.getNewValuesJson());
+    return new Entry(a.getCreatedAt(), AUDIT, a.getId(), m);
+  }
+
+  private static Map<String, Object> base(String type, String id, Instant at) {
+    Map<String, Object> m = new LinkedHashMap<>();
+    m.put("type", type);
+    m.put("id", id);
+    m.put("at", at);
+    return m;
+  }
+
+  private static String encode(Cursor c) {
+    String raw = c.at().getEpochSecond() + "." + c.at().getNano() + "|" + c.source() + "|" + c.id();
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+  }
+
+  private static Cursor decode(String token) {
+    try {
+      String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split("\\|", 3);
+      String[] time = parts[0].split("\\.", 2);
+      Instant at = Instant.ofEpochSecond(Long.parseLong(time[0]), Long.parseLong(time[1]));
+      return new Cursor(at, Integer.parseInt(parts[1]), parts[2]);
+    } catch (RuntimeException e) {
+      throw new IllegalArgumentException("Invalid cursor");
+    }
+  }
+}
@@ -1,10 +1,16 @@
 package com.cms.user;
 
+import com.cms.cache.CollectionVersions;
+import com.cms.cache.ConditionalGet;
+import com.cms.cache.RequestCoalescer;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Map;
 
@@ -12,14 +18,31 @@ import java.util.Map;
 @RequestMapping("/users")
 public class UserController {
   private final UserRepository userRepository;
+  private final CollectionVersions collectionVersions;
+  private final RequestCoalescer requestCoalescer;
+  private final UserDirectory userDirectory;
 
-  public UserController(UserRepository userRepository) {
+  public UserController(UserRepository userRepository, CollectionVersions collectionVersions, RequestCoalescer requestCoalescer, UserDirectory userDirectory) {
     this.userRepository = userRepository;
+    this.collectionVersions = collectionVersions;
+    this.requestCoalescer = requestCoalescer;
+    this.userDirectory = userDirectory;
   }
 
   @GetMapping
-  public List<User> list() {
-    return userRepository.findAll();
+  public ResponseEntity<List<User>> list(@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+    String etag = collectionVersions.etag(CollectionVersions.USERS);
+    return ConditionalGet.respond(ifNoneMatch, etag, ConditionalGet.REVALIDATE,
+        () -> requestCoalescer.execute("users.list", List.of(etag), userRepository::findAll));
+  }
+
+  /** Slim recipient search over active users for pickers; see {@link UserDirectory}. */
+  @GetMapping("/directory")
+  public List<Map<String, Object>> directory(@RequestParam(value = "q", required = false) String query,
+                                             @RequestParam(value = "role", required = false) String role,
+                                             @RequestParam(value = "department", required = false) String department,
+                                             @RequestParam(value = "limit", defaultValue = "10") int limit) {
+    return userDirectory.search(query, role, department, limit);
   }
 
   @GetMapping("/me")
@@ -40,6 +63,7 @@ public class UserController {
   }
 
   @PutMapping("/{id}")
+  @Transactional
   public ResponseEntity<?> update(@PathVariable String id, @Valid @RequestBody Map<String, Object> updates) {
     return userRepository.findById(id).map(u -> {
       if (updates.containsKey("full_name")) u.setFullName((String) updates.get("full_name"));
@@ -48,12 +72,16 @@ public class UserController {
       if (updates.containsKey("department")) u.setDepartment((String) updates.get("department"));
       if (updates.containsKey("phone")) u.setPhone((String) updates.get("phone"));
       if (updates.containsKey("is_active")) u.setActive(Boolean.parseBoolean(updates.get("is_active").toString()));
+      u.setUpdatedAt(Instant.now());
       userRepository.save(u);
+      collectionVersions.bump(CollectionVersions.USERS);
+      userDirectory.requestRefresh();
       return ResponseEntity.ok().build();
     }).orElse(ResponseEntity.notFound().build());
   }
 
   @PostMapping
+  @Transactional
   public ResponseEntity<?> create(@Valid @RequestBody Map<String, Object> body) {
     User user = new User();
     user.setEmail((String) body.get("email"));
@@ -64,6 +92,8 @@ public class UserController {
     user.setPhone((String) body.get("phone"));
     user.setPasswordHash(new org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder().encode((String) body.getOrDefault("password", "changeme")));
     userRepository.save(user);
+    collectionVersions.bump(CollectionVersions.USERS);
+    userDirectory.requestRefresh();
     return ResponseEntity.ok(Map.of("id", user.getId()));
   }
 }
\ No newline at end of file
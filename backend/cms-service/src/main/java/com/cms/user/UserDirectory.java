@@ -0,0 +1,222 @@
+package com.cms.user;
+
+import com.cms.cache.CollectionVersions;
+import com.cms.datasource.PrimaryReads;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * In-memory recipient index of active users. There is one prefix trie per bucket: everyone, each role, each
+ * department and each role and department pair. Keys are name tokens, badge number and email. Every trie node keeps
+ * the first {@link #TOP_N} users under it in name order and a count of all of them, and the node that ends a token
+ * lists every user with that token. A one-word lookup is one walk down the query's characters with no scan.
+ * <p>
+ * The index is rebuilt off the request path and swapped in whole, so readers never lock: writers call
+ * {@link #requestRefresh()}, which queues a rebuild for after their commit, and every instance polls the users
+ * collection version to pick up writes made elsewhere.
+ */
+@Component
+public class UserDirectory {
+  public static final int TOP_N = 25;
+
+  private static final Logger log = LoggerFactory.getLogger(UserDirectory.class);
+
+  private static final class Node {
+    final Map<Character, Node> children = new HashMap<>();
+    final List<Entry> top = new ArrayList<>(4);
+    List<Entry> exact;
+    int count;
+    private Entry last;
+
+    void offer(Entry e) {
+      // Users are inserted one at a time in name order, so repeats of the same user are adjacent.
+      if (last == e) return;
+      last = e;
+      count++;
+      if (top.size() < TOP_N) top.add(e);
+    }
+
+    void end(Entry e) {
+      if (exact == null) exact = new ArrayList<>(1);
+      if (exact.isEmpty() || exact.get(exact.size() - 1) != e) exact.add(e);
+    }
+  }
+
+  private record Entry(int rank, Map<String, Object> view, Set<String> tokens) {}
+
+  private final UserRepository userRepository;
+  private final CollectionVersions collectionVersions;
+  private final ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+    Thread t = new Thread(r, "user-directory-refresh");
+    t.setDaemon(true);
+    return t;
+  });
+  private final AtomicBoolean queued = new AtomicBoolean();
+  private volatile Map<String, Node> buckets = Map.of();
+  private volatile long builtVersion = -1;
+
+  public UserDirectory(UserRepository userRepository, CollectionVersions collectionVersions) {
+    this.userRepository = userRepository;
+    this.collectionVersions = collectionVersions;
+  }
+
+  /**
+   * Queues a rebuild without blocking the caller. Inside a transaction it runs after the commit, so it sees the
+   * write; requests made while one is queued share it.
+   */
+  public void requestRefresh() {
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCommit() { queueRefresh(); }
+      });
+    } else {
+      queueRefresh();
+    }
+  }
+
+  /** Picks up user writes committed by other instances. */
+  @Scheduled(fixedDelayString = "${app.users.directory-poll:PT5S}")
+  public void poll() {
+    if (collectionVersions.current(CollectionVersions.USERS) != builtVersion) queueRefresh();
+  }
+
+  private void queueRefresh() {
+    if (!queued.compareAndSet(false, true)) return;
+    executor.execute(() -> {
+      queued.set(false);
+      try {
+        refresh();
+      } catch (RuntimeException e) {
+        log.warn("User directory rebuild failed; the next poll retries", e);
+      }
+    });
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public synchronized void refresh() {
+    // Read the version first: a write landing during the rebuild leaves it behind and triggers another one.
+    long version = collectionVersions.current(CollectionVersions.USERS);
+    List<User> users = new ArrayList<>(PrimaryReads.call(userRepository::findAll).stream()
+        .filter(User::isActive).toList());
+    users.sort(Comparator.comparing((User u) -> lower(u.getFullName())).thenComparing(User::getId));
+    Map<String, Node> next = new HashMap<>();
+    for (int rank = 0; rank < users.size(); rank++) {
+      User u = users.get(rank);
+      Entry e = entry(rank, u);
+      for (String bucket : bucketsOf(u.getRole(), u.getDepartment())) {
+        Node root = next.computeIfAbsent(bucket, k -> new Node());
+        root.offer(e);
+        for (String token : e.tokens()) insert(root, token, e);
+      }
+    }
+    buckets = next;
+    builtVersion = version;
+  }
+
+  /**
+   * Up to {@code limit} active users, in name order, whose name, badge or email has a token starting with every
+   * word of {@code query}. A one-word query is answered from its node's top list, which holds the first
+   * {@link #TOP_N} matches in name order. Otherwise candidates come from the word matching the fewest users: its
+   * node's top list when that holds them all, and the complete token lists under the node when it does not.
+   */
+  public List<Map<String, Object>> search(String query, String role, String department, int limit) {
+    Node root = buckets.get(bucketKey(role, department));
+    if (root == null) return List.of();
+    String[] words = lower(query).trim().split("\\s+");
+    Node best = null;
+    for (String word : words) {
+      Node node = root;
+      for (int i = 0; i < word.length() && node != null; i++) node = node.children.get(word.charAt(i));
+      if (node == null) return List.of();
+      if (best == null || node.count < best.count) best = node;
+    }
+
+    int size = Math.max(1, Math.min(limit, TOP_N));
+    if (words.length == 1) return best.top.stream().limit(size).map(Entry::view).toList();
+    List<Entry> candidates = best.count <= best.top.size() ? best.top : everyoneUnder(best);
+    List<Map<String, Object>> out = new ArrayList<>(size);
+    for (Entry e : candidates) {
+      if (out.size() >= size) break;
+      if (matchesAll(e, words)) out.add(e.view());
+    }
+    return out;
+  }
+
+  /** Every user with a token under {@code node}, in name order. */
+  private static List<Entry> everyoneUnder(Node node) {
+    Set<Entry> found = Collections.newSetFromMap(new IdentityHashMap<>(node.count * 2));
+    Deque<Node> pending = new ArrayDeque<>();
+    pending.push(node);
+    while (!pending.isEmpty()) {
+      Node n = pending.pop();
+      if (n.exact != null) found.addAll(n.exact);
+      n.children.values().forEach(pending::push);
+    }
+    List<Entry> sorted = new ArrayList<>(found);
+    sorted.sort(Comparator.comparingInt(Entry::rank));
+    return sorted;
+  }
+
+  private static boolean matchesAll(Entry e, String[] words) {
+    for (String w : words) {
+      if (e.tokens().stream().noneMatch(t -> t.startsWith(w))) return false;
+    }
+    return true;
+  }
+
+  private static void insert(Node root, String token, Entry e) {
+    Node node = root;
+    for (int i = 0; i < token.length(); i++) {
+      node = node.children.computeIfAbsent(token.charAt(i), c -> new Node());
+      node.offer(e);
+    }
+    node.end(e);
+  }
+
+  private static Entry entry(int rank, User u) {
+    Map<String, Object> view = new LinkedHashMap<>();
+    view.put("id", u.getId());
+    view.put("full_name", u.getFullName());
+    view.put("badge_number", u.getBadgeNumber());
+    view.put("email", u.getEmail());
+    view.put("role", u.getRole());
+    view.put("department", u.getDepartment());
+
+    Set<String> tokens = new LinkedHashSet<>();
+    for (String t : lower(u.getFullName()).split("[^\\p{L}\\p{N}]+")) {
+      if (!t.isEmpty()) tokens.add(t);
+    }
+    if (u.getBadgeNumber() != null && !u.getBadgeNumber().isBlank()) tokens.add(lower(u.getBadgeNumber()).trim());
+    if (u.getEmail() != null && !u.getEmail().isBlank()) tokens.add(lower(u.getEmail()).trim());
+    return new Entry(rank, Collections.unmodifiableMap(view), Set.copyOf(tokens));
+  }
+
+  private static List<String> bucketsOf(String role, String department) {
+    List<String> keys = new ArrayList<>(4);
+    keys.add(bucketKey(null, null));
+    if (role != null) keys.add(bucketKey(role, null));
+    if (department != null) keys.add(bucketKey(null, department));
+    if (role != null && department != null) keys.add(bucketKey(role, department));
+    return keys;
+  }
+
+  private static String bucketKey(String role, String department) {
+    return (role == null || role.isBlank() ? "*" : lower(role)) + "|" + (department == null || department.isBlank() ? "*" : lower(department));
+  }
+
+  private static String lower(String s) {
+    return s == null ? "" : s.toLowerCase(Locale.ROOT);
+  }
+}
@@ -0,0 +1,126 @@
+-- Backend schema. Column names follow Spring's snake_case physical naming of the JPA entities.
+
+CREATE TABLE contraband_categories (
+  id            VARCHAR(255) PRIMARY KEY,
+  name          VARCHAR(255) NOT NULL UNIQUE,
+  description   VARCHAR(255),
+  risk_level    VARCHAR(255)
+);
+
+CREATE TABLE users (
+  id            VARCHAR(255) PRIMARY KEY,
+  email         VARCHAR(255) NOT NULL UNIQUE,
+  full_name     VARCHAR(255) NOT NULL,
+  badge_number  VARCHAR(255),
+  role          VARCHAR(255) NOT NULL,
+  department    VARCHAR(255),
+  phone         VARCHAR(255),
+  is_active     BOOLEAN NOT NULL DEFAULT TRUE,
+  created_at    TIMESTAMP(6) WITH TIME ZONE,
+  updated_at    TIMESTAMP(6) WITH TIME ZONE,
+  password_hash VARCHAR(255) NOT NULL
+);
+
+CREATE TABLE contraband_items (
+  id                VARCHAR(255) PRIMARY KEY,
+  seizure_number    VARCHAR(255),
+  item_name         VARCHAR(255),
+  description       VARCHAR(2000),
+  quantity          DOUBLE PRECISION,
+  unit              VARCHAR(255),
+  estimated_value   DOUBLE PRECISION,
+  weight_kg         DOUBLE PRECISION,
+  status            VARCHAR(255),
+  seizure_date      TIMESTAMP(6) WITH TIME ZONE,
+  seizure_location  VARCHAR(255),
+  gps_latitude      DOUBLE PRECISION,
+  gps_longitude     DOUBLE PRECISION,
+  seized_by         VARCHAR(255),
+  case_number       VARCHAR(255),
+  court_case_number VARCHAR(255),
+  barcode           VARCHAR(255),
+  rfid_tag          VARCHAR(255),
+  storage_location  VARCHAR(255),
+  created_at        TIMESTAMP(6) WITH TIME ZONE,
+  updated_at        TIMESTAMP(6) WITH TIME ZONE,
+  category_id       VARCHAR(255),
+  version           BIGINT NOT NULL DEFAULT 0
+);
+
+CREATE INDEX idx_items_seizure_number ON contraband_items (seizure_number);
+CREATE INDEX idx_items_case_number_status ON contraband_items (case_number, status);
+CREATE INDEX idx_items_barcode ON contraband_items (barcode);
+CREATE INDEX idx_items_seized_by ON contraband_items (seized_by);
+CREATE INDEX idx_items_category_id ON contraband_items (category_id);
+CREATE INDEX idx_items_status_updated_at ON contraband_items (status, updated_at);
+
+CREATE TABLE custody_chain (
+  id              VARCHAR(255) PRIMARY KEY,
+  contraband_id   VARCHAR(255),
+  from_user_id    VARCHAR(255),
+  to_user_id      VARCHAR(255),
+  transfer_reason VARCHAR(255),
+  transfer_date   TIMESTAMP(6) WITH TIME ZONE,
+  location        VARCHAR(255),
+  notes           VARCHAR(2000)
+);
+
+CREATE INDEX idx_custody_contraband_date ON custody_chain (contraband_id, transfer_date);
+CREATE INDEX idx_custody_to_user ON custody_chain (to_user_id);
+
+CREATE TABLE evidence_files (
+  id            VARCHAR(255) PRIMARY KEY,
+  contraband_id VARCHAR(255),
+  file_name     VARCHAR(255),
+  file_type     VARCHAR(255),
+  file_size     BIGINT,
+  file_url      VARCHAR(255),
+  uploaded_by   VARCHAR(255),
+  description   VARCHAR(255),
+  uploaded_at   TIMESTAMP(6) WITH TIME ZONE
+);
+
+CREATE INDEX idx_evidence_contraband ON evidence_files (contraband_id, uploaded_at);
+CREATE INDEX idx_evidence_file_name ON evidence_files (file_name);
+
+CREATE TABLE messages (
+  id                VARCHAR(255) PRIMARY KEY,
+  from_user_id      VARCHAR(255),
+  to_user_id        VARCHAR(255),
+  subject           VARCHAR(255),
+  content           VARCHAR(5000),
+  priority          VARCHAR(255),
+  message_type      VARCHAR(255),
+  contraband_id     VARCHAR(255),
+  is_read           BOOLEAN NOT NULL DEFAULT FALSE,
+  requires_response BOOLEAN NOT NULL DEFAULT FALSE,
+  parent_message_id VARCHAR(255),
+  created_at        TIMESTAMP(6) WITH TIME ZONE,
+  read_at           TIMESTAMP(6) WITH TIME ZONE
+);
+
+CREATE INDEX idx_messages_to_user_created ON messages (to_user_id, created_at);
+CREATE INDEX idx_messages_from_user_created ON messages (from_user_id, created_at);
+CREATE INDEX idx_messages_contraband ON messages (contraband_id, created_at);
+CREATE INDEX idx_messages_parent ON messages (parent_message_id);
+
+CREATE TABLE audit_logs (
+  id              VARCHAR(255) PRIMARY KEY,
+  user_id         VARCHAR(255),
+  action          VARCHAR(255),
+  table_name      VARCHAR(255),
+  record_id       VARCHAR(255),
+  new_values_json VARCHAR(8000),
+  created_at      TIMESTAMP(6) WITH TIME ZONE
+);
+
+CREATE INDEX idx_audit_record_created ON audit_logs (record_id, created_at);
+CREATE INDEX idx_audit_created ON audit_logs (created_at);
+
+CREATE TABLE change_log (
+  seq         BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+  entity_type VARCHAR(255) NOT NULL,
+  entity_id   VARCHAR(255) NOT NULL,
+  operation   VARCHAR(255) NOT NULL,
+  changed_at  TIMESTAMP(6) WITH TIME ZONE
+);
@@ -0,0 +1,11 @@
+INSERT INTO contraband_categories (id, name, description, risk_level) VALUES
+  ('6a0f3c1e-6d1b-4c39-9a55-0c8f1b1e0001', 'Drugs', 'Illegal narcotics and controlled substances', 'critical'),
+  ('6a0f3c1e-6d1b-4c39-9a55-0c8f1b1e0002', 'Weapons', 'Firearms, explosives, and related items', 'high'),
+  ('6a0f3c1e-6d1b-4c39-9a55-0c8f1b1e0003', 'Counterfeit Goods', 'Fake branded products and counterfeit items', 'medium'),
+  ('6a0f3c1e-6d1b-4c39-9a55-0c8f1b1e0004', 'Wildlife Products', 'Illegal wildlife and derived products', 'high'),
+  ('6a0f3c1e-6d1b-4c39-9a55-0c8f1b1e0005', 'Electronics', 'Stolen or illegal electronic devices', 'medium'),
+  ('6a0f3c1e-6d1b-4c39-9a55-0c8f1b1e0006', 'Documents', 'Forged or illegal documents', 'medium');
+
+-- Default admin user (password: admin123)
+INSERT INTO users (id, email, full_name, badge_number, role, department, phone, is_active, created_at, updated_at, password_hash)
+VALUES ('6a0f3c1e-6d1b-4c39-9a55-0c8f1b1e1001', 'admin@police.gov.et', 'System Admin', 'ADM-0001', 'admin', 'HQ', '+251-000-0000', TRUE, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, '$2a$10$Kq9I5cK8b1N4y4o3e0tNDOzk8fr4E6qW7Gq8eG7l8w0qvJqY2a8x2');
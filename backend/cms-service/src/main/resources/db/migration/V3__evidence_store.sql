@@ -0,0 +1,8 @@
+ALTER TABLE evidence_files ADD COLUMN storage_key VARCHAR(255);
+ALTER TABLE evidence_files ADD COLUMN stored_size BIGINT;
+ALTER TABLE evidence_files ADD COLUMN compressed BOOLEAN NOT NULL DEFAULT FALSE;
+ALTER TABLE evidence_files ADD COLUMN sha256 VARCHAR(64);
+ALTER TABLE evidence_files ADD COLUMN integrity_status VARCHAR(255) DEFAULT 'unverified';
+ALTER TABLE evidence_files ADD COLUMN last_verified_at TIMESTAMP(6) WITH TIME ZONE;
+
+CREATE INDEX idx_evidence_integrity_status ON evidence_files (integrity_status);
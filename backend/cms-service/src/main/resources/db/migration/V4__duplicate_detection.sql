@@ -0,0 +1,4 @@
+-- Spatial-temporal bucket used to find possible duplicate seizures; set on creation for items with GPS coordinates.
+ALTER TABLE contraband_items ADD COLUMN dedup_bucket VARCHAR(64);
+
+CREATE INDEX idx_items_dedup_bucket ON contraband_items (dedup_bucket);
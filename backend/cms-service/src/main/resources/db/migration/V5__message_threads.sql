@@ -0,0 +1,8 @@
+-- Root of each message's reply tree. Replies could not be created before this change, so every existing message
+-- is either a root or a direct reply to one.
+ALTER TABLE messages ADD COLUMN thread_root_id VARCHAR(255);
+
+UPDATE messages SET thread_root_id = COALESCE(parent_message_id, id);
+
+CREATE INDEX idx_messages_thread_root ON messages (thread_root_id, created_at);
+CREATE INDEX idx_messages_to_user_unread ON messages (to_user_id, is_read);
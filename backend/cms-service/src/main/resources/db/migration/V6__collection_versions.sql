@@ -0,0 +1,5 @@
+-- Version stamps behind the collection ETags, shared by every service instance.
+CREATE TABLE collection_versions (
+  name    VARCHAR(255) PRIMARY KEY,
+  version BIGINT NOT NULL
+);
@@ -0,0 +1,12 @@
+-- change_log.seq is assigned at insert, and transactions can commit out of that order. Sync reads commit_seq
+-- instead. The sequencer hands it out to committed rows under a lock on change_log_sequencer, so it only grows
+-- in the order readers can see it.
+ALTER TABLE change_log ADD COLUMN commit_seq BIGINT;
+UPDATE change_log SET commit_seq = seq;
+CREATE UNIQUE INDEX idx_change_log_commit_seq ON change_log (commit_seq);
+
+CREATE TABLE change_log_sequencer (
+  id       INT PRIMARY KEY,
+  last_seq BIGINT NOT NULL
+);
+INSERT INTO change_log_sequencer (id, last_seq) SELECT 1, COALESCE(MAX(seq), 0) FROM change_log;
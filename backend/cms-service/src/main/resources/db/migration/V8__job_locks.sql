@@ -0,0 +1,9 @@
+-- Leases that let one instance at a time run a nightly job. A run takes the lease by moving locked_until forward
+-- while it is in the past, and hands it back when it finishes; a crashed holder's lease simply runs out.
+CREATE TABLE job_locks (
+  name         VARCHAR(255) PRIMARY KEY,
+  locked_until TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+  locked_by    VARCHAR(255) NOT NULL
+);
+INSERT INTO job_locks (name, locked_until, locked_by) VALUES ('audit-archive', TIMESTAMP WITH TIME ZONE '1970-01-01 00:00:00+00', '');
+INSERT INTO job_locks (name, locked_until, locked_by) VALUES ('item-archive', TIMESTAMP WITH TIME ZONE '1970-01-01 00:00:00+00', '');
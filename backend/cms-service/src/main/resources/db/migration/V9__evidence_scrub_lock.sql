@@ -0,0 +1,2 @@
+-- Lets one instance at a time scrub evidence; the holder keeps the lease for a pass interval after each pass.
+INSERT INTO job_locks (name, locked_until, locked_by) VALUES ('evidence-scrub', TIMESTAMP WITH TIME ZONE '1970-01-01 00:00:00+00', '');
@@ -0,0 +1,96 @@
+package com.cms.datasource;
+
+import com.cms.security.JwtService;
+import com.cms.user.User;
+import com.cms.user.UserRepository;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * A request that reads through a read-only transaction and then writes must still write to the primary. The
+ * replica here is a separate database with the same schema, so a misrouted write shows up as diverging rows.
+ */
+@SpringBootTest(properties = {
+    "app.datasource.routing.enabled=true",
+    "app.datasource.routing.read-your-writes-window=0s",
+    "app.datasource.routing.replicas[0].url=" + ReadWriteRoutingIntegrationTest.REPLICA_URL,
+    "app.datasource.routing.replicas[0].username=sa",
+    "app.datasource.routing.replicas[0].password=",
+    "app.evidence.scrub.enabled=false"
+})
+@AutoConfigureMockMvc
+class ReadWriteRoutingIntegrationTest {
+  static final String PRIMARY_URL = "jdbc:h2:mem:cmsdb;DB_CLOSE_DELAY=-1;MODE=PostgreSQL";
+  static final String REPLICA_URL = "jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1;MODE=PostgreSQL";
+  static final String ADMIN_ID = "6a0f3c1e-6d1b-4c39-9a55-0c8f1b1e1001";
+
+  static {
+    Flyway.configure().dataSource(REPLICA_URL, "sa", "").load().migrate();
+  }
+
+  /** Reads in one repository transaction and writes in another, the way a non-transactional handler does. */
+  @TestConfiguration
+  static class ProbeConfig {
+    @Bean
+    RenameProbe renameProbe(UserRepository userRepository) {
+      return new RenameProbe(userRepository);
+    }
+  }
+
+  @RestController
+  static class RenameProbe {
+    private final UserRepository userRepository;
+
+    RenameProbe(UserRepository userRepository) { this.userRepository = userRepository; }
+
+    @PutMapping("/test/rename/{id}")
+    void rename(@PathVariable String id, @RequestBody Map<String, String> body) {
+      User u = userRepository.findById(id).orElseThrow();
+      u.setFullName(body.get("full_name"));
+      userRepository.save(u);
+    }
+  }
+
+  @Autowired
+  MockMvc mvc;
+
+  @Autowired
+  JwtService jwtService;
+
+  @Test
+  void writeAfterReadInOneRequestGoesToPrimary() throws Exception {
+    String token = jwtService.generateToken(ADMIN_ID, Map.of("role", "admin"));
+
+    mvc.perform(put("/test/rename/" + ADMIN_ID)
+            .header("Authorization", "Bearer " + token)
+            .contentType("application/json")
+            .content("{\"full_name\":\"Routed Admin\"}"))
+        .andExpect(status().isOk());
+
+    assertThat(fullName(PRIMARY_URL)).isEqualTo("Routed Admin");
+    assertThat(fullName(REPLICA_URL)).isEqualTo("System Admin");
+  }
+
+  private static String fullName(String url) {
+    return new JdbcTemplate(new DriverManagerDataSource(url, "sa", ""))
+        .queryForObject("SELECT full_name FROM users WHERE id = ?", String.class, ADMIN_ID);
+  }
+}